@@ -0,0 +1,355 @@
+package com.kaizenflow.doitnow.benchmark;
+
+import com.kaizenflow.doitnow.user.dto.UserRequest;
+import com.kaizenflow.doitnow.user.dto.UserResponse;
+import com.kaizenflow.doitnow.user.service.UserService;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import org.HdrHistogram.Histogram;
+import org.springframework.context.ConfigurableApplicationContext;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Load test for the REST API. Boots the application with its web server, seeds todos and users, then runs a number
+ * of concurrent clients that call every {@code /api/todos} and {@code /api/users} endpoint in a weighted read/write
+ * mix for a fixed time. Prints requests, errors, throughput and HDR latency percentiles per endpoint and writes the
+ * same table to {@code summary.csv} in the report directory.
+ *
+ * <p>Configured through system properties, which the {@code loadTest} Gradle task fills from {@code -PloadTest.*}:
+ * {@code clients} (64), {@code duration} and {@code warmup} in seconds (60, 10), {@code writeRatio} (0.2),
+ * {@code seedTodos} (5000), {@code seedUsers} (50) and {@code virtualThreads} (false). The database is in-memory H2
+ * unless {@code spring.datasource.url} is set.
+ */
+public final class ApiLoadTest {
+
+    private static final JsonMapper JSON = JsonMapper.builder().build();
+
+    private final int clients = Integer.getInteger("loadTest.clients", 64);
+    private final int durationSeconds = Integer.getInteger("loadTest.duration", 60);
+    private final int warmupSeconds = Integer.getInteger("loadTest.warmup", 10);
+    private final double writeRatio = Double.parseDouble(System.getProperty("loadTest.writeRatio", "0.2"));
+    private final int seedTodos = Integer.getInteger("loadTest.seedTodos", 5_000);
+    private final int seedUsers = Integer.getInteger("loadTest.seedUsers", 50);
+    private final boolean virtualThreads = Boolean.getBoolean("loadTest.virtualThreads");
+    private final Path reportDir = Path.of(System.getProperty("loadTest.reportDir", "build/reports/loadtest"));
+
+    private final AtomicLong nextEntityId = new AtomicLong(1_000_000_000L);
+    private final AtomicLong nextUserNumber = new AtomicLong();
+    private final List<Endpoint> reads = new ArrayList<>();
+    private final List<Endpoint> writes = new ArrayList<>();
+    private final List<UserResponse> seededUsers = new ArrayList<>();
+
+    private HttpClient httpClient;
+    private String baseUrl;
+
+    private ApiLoadTest() {}
+
+    public static void main(String[] args) throws Exception {
+        new ApiLoadTest().run();
+    }
+
+    private void run() throws Exception {
+        try (ConfigurableApplicationContext context =
+                BenchmarkApplication.startServer("--spring.threads.virtual.enabled=" + virtualThreads)) {
+            seed(context);
+            baseUrl = "http://localhost:" + BenchmarkApplication.port(context);
+            httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+            defineEndpoints();
+
+            System.out.printf(
+                    "Load test: %d clients, %ds warmup + %ds measured, write ratio %.2f, %s request threads%n",
+                    clients, warmupSeconds, durationSeconds, writeRatio, virtualThreads ? "virtual" : "platform");
+
+            long measureFrom = System.nanoTime() + TimeUnit.SECONDS.toNanos(warmupSeconds);
+            long measureUntil = measureFrom + TimeUnit.SECONDS.toNanos(durationSeconds);
+            Map<String, EndpointStats> totals = new TreeMap<>();
+            try (ExecutorService executor = Executors.newFixedThreadPool(clients)) {
+                List<Future<Map<String, EndpointStats>>> results = new ArrayList<>();
+                for (int i = 0; i < clients; i++) {
+                    long seed = i;
+                    results.add(executor.submit(() -> new Client(seed).runUntil(measureFrom, measureUntil)));
+                }
+                for (Future<Map<String, EndpointStats>> result : results) {
+                    result.get().forEach((endpoint, stats) ->
+                            totals.computeIfAbsent(endpoint, name -> new EndpointStats()).add(stats));
+                }
+            } finally {
+                httpClient.close();
+            }
+            report(totals);
+        }
+    }
+
+    private void seed(ConfigurableApplicationContext context) {
+        BenchmarkApplication.seedTodos(context, seedTodos);
+        UserService userService = context.getBean(UserService.class);
+        for (int i = 0; i < seedUsers; i++) {
+            seededUsers.add(userService.createUser(userRequest("seed" + i)));
+        }
+    }
+
+    private void defineEndpoints() {
+        reads.add(new Endpoint("GET /api/todos", 10, c -> call(get("/api/todos?limit=50"))));
+        reads.add(new Endpoint("GET /api/todos/{id}", 10, c -> call(get("/api/todos/" + c.seededTodoId()))));
+        reads.add(new Endpoint("GET /api/todos/due-date", 3, c -> {
+            OffsetDateTime start = OffsetDateTime.now(ZoneOffset.UTC).plusDays(c.random.nextInt(30));
+            return call(get("/api/todos/due-date?start=" + encode(start) + "&end=" + encode(start.plusDays(1))));
+        }));
+        reads.add(new Endpoint("GET /api/todos/changes", 3, c -> call(get("/api/todos/changes?limit=100"))));
+        reads.add(new Endpoint("GET /api/todos/export", 1, c -> call(get("/api/todos/export"))));
+        reads.add(new Endpoint("GET /api/users", 2, c -> call(get("/api/users"))));
+        reads.add(new Endpoint("GET /api/users/{id}", 5, c -> call(get("/api/users/" + c.seededUser().getId()))));
+        reads.add(new Endpoint(
+                "GET /api/users/username/{username}",
+                5,
+                c -> call(get("/api/users/username/" + c.seededUser().getUsername()))));
+        reads.add(new Endpoint(
+                "GET /api/users/email/{email}", 2, c -> call(get("/api/users/email/" + c.seededUser().getEmail()))));
+
+        writes.add(new Endpoint("POST /api/todos", 5, Client::createTodo));
+        writes.add(new Endpoint("PUT /api/todos/{id}", 3, c -> {
+            long id = c.seededTodoId();
+            return call(send("PUT", "/api/todos/" + id, todoBody(id, "Updated by load test")));
+        }));
+        writes.add(new Endpoint("PATCH /api/todos/{id}", 3, c -> call(send(
+                "PATCH",
+                "/api/todos/" + c.seededTodoId(),
+                Map.of("priority", List.of("low", "medium", "high").get(c.random.nextInt(3)))))));
+        writes.add(new Endpoint(
+                "PATCH /api/todos/{id}/toggle",
+                3,
+                c -> call(send("PATCH", "/api/todos/" + c.seededTodoId() + "/toggle", null))));
+        writes.add(new Endpoint("DELETE /api/todos/{id}", 2, c -> {
+            Long id = c.createdTodoIds.poll();
+            return id == null ? c.createTodo() : call(send("DELETE", "/api/todos/" + id, null));
+        }));
+        writes.add(new Endpoint("POST /api/todos/sync", 1, Client::syncTodos));
+        writes.add(new Endpoint("POST /api/users", 1, Client::createUser));
+        writes.add(new Endpoint("PUT /api/users/{id}", 1, c -> {
+            Long id = c.createdUserIds.peek();
+            if (id == null) {
+                return c.createUser();
+            }
+            String username = "lt" + nextUserNumber.incrementAndGet();
+            return call(send("PUT", "/api/users/" + id, userRequest(username)));
+        }));
+        writes.add(new Endpoint("DELETE /api/users/{id}", 1, c -> {
+            Long id = c.createdUserIds.poll();
+            return id == null ? c.createUser() : call(send("DELETE", "/api/users/" + id, null));
+        }));
+    }
+
+    private void report(Map<String, EndpointStats> totals) throws IOException {
+        Files.createDirectories(reportDir);
+        Path csv = reportDir.resolve("summary.csv");
+        EndpointStats all = new EndpointStats();
+        totals.values().forEach(all::add);
+
+        String header = "%-36s %9s %7s %9s %9s %9s %9s %9s %9s%n";
+        String row = "%-36s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n";
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(csv))) {
+            out.println("endpoint,requests,errors,requests_per_second,p50_ms,p90_ms,p99_ms,p99_9_ms,max_ms");
+            System.out.printf(header, "Endpoint", "Requests", "Errors", "Req/s", "p50 ms", "p90 ms", "p99 ms",
+                    "p99.9 ms", "max ms");
+            Map<String, EndpointStats> rows = new LinkedHashMap<>(totals);
+            rows.put("TOTAL", all);
+            rows.forEach((endpoint, stats) -> {
+                Histogram h = stats.latencies;
+                double throughput = (double) h.getTotalCount() / durationSeconds;
+                double[] values = {
+                    millis(h.getValueAtPercentile(50)),
+                    millis(h.getValueAtPercentile(90)),
+                    millis(h.getValueAtPercentile(99)),
+                    millis(h.getValueAtPercentile(99.9)),
+                    millis(h.getMaxValue())
+                };
+                System.out.printf(row, endpoint, h.getTotalCount(), stats.errors, throughput, values[0], values[1],
+                        values[2], values[3], values[4]);
+                out.printf("\"%s\",%d,%d,%.1f,%.2f,%.2f,%.2f,%.2f,%.2f%n", endpoint, h.getTotalCount(), stats.errors,
+                        throughput, values[0], values[1], values[2], values[3], values[4]);
+            });
+        }
+        System.out.println("Summary written to " + csv.toAbsolutePath());
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).GET().build();
+    }
+
+    private HttpRequest send(String method, String path, Object body) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path));
+        if (body == null) {
+            return builder.method(method, HttpRequest.BodyPublishers.noBody()).build();
+        }
+        return builder.header("Content-Type", "application/json")
+                .method(method, HttpRequest.BodyPublishers.ofByteArray(JSON.writeValueAsBytes(body)))
+                .build();
+    }
+
+    private static Call call(HttpRequest request) {
+        return new Call(null, request, null);
+    }
+
+    private static Map<String, Object> todoBody(long entityId, String title) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("entityId", entityId);
+        body.put("title", title);
+        body.put("priority", "medium");
+        return body;
+    }
+
+    private static UserRequest userRequest(String username) {
+        UserRequest request = new UserRequest();
+        request.setUsername(username);
+        request.setEmail(username + "@example.com");
+        return request;
+    }
+
+    private static String encode(OffsetDateTime dateTime) {
+        return dateTime.toString().replace("+", "%2B");
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    /** An endpoint the clients call, picked with probability proportional to its weight within reads or writes. */
+    private record Endpoint(String name, int weight, Function<Client, Call> prepare) {}
+
+    /**
+     * A prepared request. {@code endpoint} overrides the endpoint it is recorded under when an operation had to fall
+     * back to another one, e.g. a delete with nothing of its own left to delete creates instead.
+     */
+    private record Call(String endpoint, HttpRequest request, Consumer<byte[]> onSuccess) {}
+
+    private static final class EndpointStats {
+        private final Histogram latencies = new Histogram(3);
+        private long errors;
+
+        void add(EndpointStats other) {
+            latencies.add(other.latencies);
+            errors += other.errors;
+        }
+    }
+
+    private final class Client {
+
+        private final Random random;
+        private final Deque<Long> createdTodoIds = new ArrayDeque<>();
+        private final Deque<Long> createdUserIds = new ArrayDeque<>();
+        private final Map<String, EndpointStats> stats = new HashMap<>();
+
+        Client(long seed) {
+            this.random = new Random(seed);
+        }
+
+        Map<String, EndpointStats> runUntil(long measureFrom, long measureUntil) throws InterruptedException {
+            long now = System.nanoTime();
+            while (now < measureUntil) {
+                Endpoint endpoint = pick(random.nextDouble() < writeRatio ? writes : reads);
+                Call call = endpoint.prepare().apply(this);
+                String name = call.endpoint() != null ? call.endpoint() : endpoint.name();
+
+                long start = System.nanoTime();
+                boolean success;
+                byte[] body = null;
+                try {
+                    HttpResponse<byte[]> response =
+                            httpClient.send(call.request(), HttpResponse.BodyHandlers.ofByteArray());
+                    success = response.statusCode() < 400;
+                    body = response.body();
+                } catch (IOException e) {
+                    success = false;
+                }
+                now = System.nanoTime();
+
+                if (start >= measureFrom && now < measureUntil) {
+                    EndpointStats endpointStats = stats.computeIfAbsent(name, n -> new EndpointStats());
+                    endpointStats.latencies.recordValue(now - start);
+                    if (!success) {
+                        endpointStats.errors++;
+                    }
+                }
+                if (success && call.onSuccess() != null) {
+                    call.onSuccess().accept(body);
+                }
+            }
+            return stats;
+        }
+
+        Call createTodo() {
+            long id = nextEntityId.incrementAndGet();
+            return new Call(
+                    "POST /api/todos",
+                    send("POST", "/api/todos", todoBody(id, "Created by load test")),
+                    body -> createdTodoIds.add(id));
+        }
+
+        Call syncTodos() {
+            List<Map<String, Object>> operations = new ArrayList<>();
+            List<Long> ids = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                long id = nextEntityId.incrementAndGet();
+                ids.add(id);
+                operations.add(Map.of("type", "CREATE", "entityId", id, "payload", todoBody(id, "Synced")));
+            }
+            return new Call(
+                    "POST /api/todos/sync",
+                    send("POST", "/api/todos/sync", Map.of("operations", operations)),
+                    body -> createdTodoIds.addAll(ids));
+        }
+
+        Call createUser() {
+            String username = "lt" + nextUserNumber.incrementAndGet();
+            return new Call(
+                    "POST /api/users",
+                    send("POST", "/api/users", userRequest(username)),
+                    body -> createdUserIds.add(
+                            JSON.readValue(body, UserResponse.class).getId()));
+        }
+
+        long seededTodoId() {
+            return 1 + random.nextInt(seedTodos);
+        }
+
+        UserResponse seededUser() {
+            return seededUsers.get(random.nextInt(seededUsers.size()));
+        }
+
+        private Endpoint pick(List<Endpoint> endpoints) {
+            int total = endpoints.stream().mapToInt(Endpoint::weight).sum();
+            int roll = random.nextInt(total);
+            for (Endpoint endpoint : endpoints) {
+                roll -= endpoint.weight();
+                if (roll < 0) {
+                    return endpoint;
+                }
+            }
+            throw new IllegalStateException("No endpoint picked");
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.kaizenflow.doitnow.benchmark;
+
+import com.kaizenflow.doitnow.DoitnowApplication;
+import com.kaizenflow.doitnow.todo.dto.TodoRequest;
+import com.kaizenflow.doitnow.todo.dto.TodoSyncOperation;
+import com.kaizenflow.doitnow.todo.dto.TodoSyncOperationType;
+import com.kaizenflow.doitnow.todo.dto.TodoSyncRequest;
+import com.kaizenflow.doitnow.todo.service.TodoSyncService;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Boots the application context for benchmarks, without the web server unless a benchmark asks for it.
+ *
+ * <p>Runs against an in-memory H2 database in PostgreSQL mode with the schema generated by Hibernate, unless
+ * {@code spring.datasource.url} is set as a system property, in which case that database and its Flyway migrations
+ * are used instead.
+ */
+final class BenchmarkApplication {
+
+    private BenchmarkApplication() {}
+
+    static ConfigurableApplicationContext start() {
+        return new SpringApplicationBuilder(DoitnowApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(commonArgs().toArray(String[]::new));
+    }
+
+    /** Boots the application with its web server on a random port, read back with {@link #port}. */
+    static ConfigurableApplicationContext startServer(String... extraArgs) {
+        List<String> args = commonArgs();
+        args.add("--server.port=0");
+        // Every load-generating client shares one address, so per-client rate limits would measure 429s instead
+        args.add("--doitnow.admission.enabled=false");
+        args.addAll(List.of(extraArgs));
+        return new SpringApplicationBuilder(DoitnowApplication.class)
+                .web(WebApplicationType.SERVLET)
+                .run(args.toArray(String[]::new));
+    }
+
+    static int port(ConfigurableApplicationContext context) {
+        return context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+    }
+
+    private static List<String> commonArgs() {
+        List<String> args = new ArrayList<>();
+        args.add("--logging.level.root=WARN");
+        if (System.getProperty("spring.datasource.url") == null) {
+            args.add("--spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1;MODE=PostgreSQL");
+            args.add("--spring.datasource.username=sa");
+            args.add("--spring.datasource.password=sa");
+            args.add("--spring.datasource.driver-class-name=org.h2.Driver");
+            args.add("--spring.jpa.hibernate.ddl-auto=create-drop");
+            args.add("--spring.flyway.enabled=false");
+            args.add("--spring.liquibase.enabled=false");
+        }
+        return args;
+    }
+
+    /** A sync batch creating {@code count} todos with consecutive entity IDs starting at {@code firstEntityId}. */
+    static TodoSyncRequest createBatch(long firstEntityId, int count) {
+        List<TodoSyncOperation> operations = new ArrayList<>(count);
+        OffsetDateTime dueBase = OffsetDateTime.now(ZoneOffset.UTC);
+        for (int i = 0; i < count; i++) {
+            long entityId = firstEntityId + i;
+            TodoRequest payload = new TodoRequest();
+            payload.setTitle("Benchmark todo " + entityId);
+            payload.setDescription("Generated for benchmarking");
+            payload.setPriority(i % 3 == 0 ? "high" : "medium");
+            payload.setCompleted(i % 2 == 0);
+            payload.setDueDate(dueBase.plusDays(i % 30));
+
+            TodoSyncOperation operation = new TodoSyncOperation();
+            operation.setType(TodoSyncOperationType.CREATE);
+            operation.setEntityId(entityId);
+            operation.setPayload(payload);
+            operations.add(operation);
+        }
+
+        TodoSyncRequest request = new TodoSyncRequest();
+        request.setOperations(operations);
+        return request;
+    }
+
+    /** Inserts {@code count} todos, in batches, for read benchmarks to query. */
+    static void seedTodos(ConfigurableApplicationContext context, int count) {
+        TodoSyncService todoSyncService = context.getBean(TodoSyncService.class);
+        int batchSize = 1000;
+        for (int created = 0; created < count; created += batchSize) {
+            todoSyncService.applyBatch(createBatch(created + 1L, Math.min(batchSize, count - created)));
+        }
+    }
+}
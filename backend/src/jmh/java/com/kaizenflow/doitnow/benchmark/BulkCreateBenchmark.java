@@ -0,0 +1,104 @@
+package com.kaizenflow.doitnow.benchmark;
+
+import com.kaizenflow.doitnow.todo.dto.TodoRequest;
+import com.kaizenflow.doitnow.todo.dto.TodoSyncOperation;
+import com.kaizenflow.doitnow.todo.dto.TodoSyncRequest;
+import com.kaizenflow.doitnow.todo.service.TodoSyncService;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Throughput of creating todos in bulk, reported per invocation of {@code batchSize} creates in one transaction.
+ *
+ * <p>{@code pooledSequence} is the batched sync endpoint's service: the todo id is drawn from a pooled sequence, so
+ * Hibernate knows every id up front and sends the inserts as JDBC batches of {@code hibernate.jdbc.batch_size}.
+ * {@code identity} reproduces what the former IDENTITY mapping made Hibernate do: one INSERT per todo, each executed
+ * on its own and followed by reading back the generated key, since Hibernate needs the id before it can go on. It
+ * writes through plain JDBC and skips the service's validation and mapping, so it flatters the IDENTITY side.
+ *
+ * <p>Against PostgreSQL pass {@code -PbenchmarkDatasourceUrl=...} so the {@code reWriteBatchedInserts} driver path
+ * and the per-row round trips are exercised too.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class BulkCreateBenchmark {
+
+    private static final String INSERT_TODO = """
+            INSERT INTO todos (id, entity_id, title, description, completed, priority, due_date, created_at,
+                               updated_at, version)
+            VALUES (nextval('todos_id_seq'), ?, ?, ?, ?, ?, ?, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, 0)""";
+
+    @Param({"100", "1000"})
+    private int batchSize;
+
+    @Param({"identity", "pooledSequence"})
+    private String mode;
+
+    private ConfigurableApplicationContext context;
+    private TodoSyncService todoSyncService;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private long nextEntityId;
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        context = BenchmarkApplication.start();
+        todoSyncService = context.getBean(TodoSyncService.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        nextEntityId = System.nanoTime();
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+
+    @Benchmark
+    public Object bulkCreate() {
+        TodoSyncRequest request = BenchmarkApplication.createBatch(nextEntityId, batchSize);
+        nextEntityId += batchSize;
+        if (mode.equals("pooledSequence")) {
+            return todoSyncService.applyBatch(request);
+        }
+        return transactionTemplate.execute(status -> {
+            List<Number> ids = new ArrayList<>(batchSize);
+            for (TodoSyncOperation operation : request.getOperations()) {
+                TodoRequest payload = operation.getPayload();
+                KeyHolder keyHolder = new GeneratedKeyHolder();
+                jdbcTemplate.update(
+                        connection -> {
+                            PreparedStatement statement = connection.prepareStatement(INSERT_TODO, new String[] {"id"});
+                            statement.setLong(1, operation.getEntityId());
+                            statement.setString(2, payload.getTitle());
+                            statement.setString(3, payload.getDescription());
+                            statement.setBoolean(4, payload.getCompleted());
+                            statement.setString(5, payload.getPriority());
+                            statement.setObject(6, payload.getDueDate());
+                            return statement;
+                        },
+                        keyHolder);
+                ids.add(keyHolder.getKey());
+            }
+            return ids;
+        });
+    }
+}
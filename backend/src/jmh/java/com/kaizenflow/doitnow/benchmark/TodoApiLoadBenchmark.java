@@ -0,0 +1,70 @@
+package com.kaizenflow.doitnow.benchmark;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Drives the running server with more concurrent clients than Tomcat has platform request threads, once with
+ * platform threads and once with virtual threads. {@code SampleTime} reports the latency percentiles (see
+ * {@code p0.99}), {@code Throughput} the requests per second across all clients.
+ *
+ * <p>The gap only shows when requests wait on the database, so run it against a local PostgreSQL with
+ * {@code -PbenchmarkDatasourceUrl}; on in-memory H2 every request is CPU bound and both modes look alike.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(400)
+public class TodoApiLoadBenchmark {
+
+    private static final int SEEDED_TODOS = 5_000;
+
+    @Param({"false", "true"})
+    private boolean virtualThreads;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private HttpRequest listRequest;
+
+    @Setup(Level.Trial)
+    public void startServer() {
+        context = BenchmarkApplication.startServer("--spring.threads.virtual.enabled=" + virtualThreads);
+        BenchmarkApplication.seedTodos(context, SEEDED_TODOS);
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        listRequest = HttpRequest.newBuilder(
+                        URI.create("http://localhost:" + BenchmarkApplication.port(context) + "/api/todos?limit=50"))
+                .GET()
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void stopServer() {
+        client.close();
+        context.close();
+    }
+
+    @Benchmark
+    public int listTodos() throws IOException, InterruptedException {
+        HttpResponse<byte[]> response = client.send(listRequest, HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("GET /api/todos returned " + response.statusCode());
+        }
+        return response.body().length;
+    }
+}
@@ -0,0 +1,101 @@
+package com.kaizenflow.doitnow.benchmark;
+
+import com.kaizenflow.doitnow.bulkimport.dto.ImportFormat;
+import com.kaizenflow.doitnow.bulkimport.dto.ImportResponse;
+import com.kaizenflow.doitnow.bulkimport.service.ImportService;
+import com.kaizenflow.doitnow.todo.dto.TodoRequest;
+import com.kaizenflow.doitnow.todo.service.TodoService;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Time to import {@code rows} todos, one import per invocation with entity IDs not seen before.
+ *
+ * <p>{@code perRow} calls {@link TodoService#createTodo} for every row, as onboarding did before the import endpoint.
+ * {@code csvImport} sends the same rows through {@link ImportService#importTodos}, which stages them and merges them
+ * with set-based statements; against PostgreSQL ({@code -PbenchmarkDatasourceUrl=...}) the rows are staged with
+ * {@code COPY}, against H2 with batched inserts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class TodoImportBenchmark {
+
+    @Param({"100000"})
+    private int rows;
+
+    @Param({"perRow", "csvImport"})
+    private String mode;
+
+    private ConfigurableApplicationContext context;
+    private ImportService importService;
+    private TodoService todoService;
+    private long nextEntityId;
+    private long firstEntityId;
+    private byte[] csv;
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        context = BenchmarkApplication.start();
+        importService = context.getBean(ImportService.class);
+        todoService = context.getBean(TodoService.class);
+        nextEntityId = System.nanoTime();
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+
+    @Setup(Level.Invocation)
+    public void prepareRows() {
+        firstEntityId = nextEntityId;
+        nextEntityId += rows;
+        StringBuilder builder = new StringBuilder("entityId,title,description,completed,priority\n");
+        for (int i = 0; i < rows; i++) {
+            long entityId = firstEntityId + i;
+            builder.append(entityId)
+                    .append(",Imported todo ")
+                    .append(entityId)
+                    .append(",Generated for benchmarking,")
+                    .append(i % 2 == 0)
+                    .append(',')
+                    .append(i % 3 == 0 ? "high" : "medium")
+                    .append('\n');
+        }
+        csv = builder.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public Object importTodos() {
+        if (mode.equals("csvImport")) {
+            ImportResponse response = importService.importTodos(new ByteArrayInputStream(csv), ImportFormat.CSV);
+            return response.getImported();
+        }
+        long imported = 0;
+        for (int i = 0; i < rows; i++) {
+            long entityId = firstEntityId + i;
+            TodoRequest request = new TodoRequest();
+            request.setEntityId(entityId);
+            request.setTitle("Imported todo " + entityId);
+            request.setDescription("Generated for benchmarking");
+            request.setCompleted(i % 2 == 0);
+            request.setPriority(i % 3 == 0 ? "high" : "medium");
+            todoService.createTodo(request);
+            imported++;
+        }
+        return imported;
+    }
+}
@@ -0,0 +1,73 @@
+package com.kaizenflow.doitnow.benchmark;
+
+import com.kaizenflow.doitnow.todo.dto.TodoRequest;
+import com.kaizenflow.doitnow.todo.dto.TodoResponse;
+import com.kaizenflow.doitnow.todo.entity.Todo;
+import com.kaizenflow.doitnow.todo.mapper.TodoMapper;
+import com.kaizenflow.doitnow.todo.mapper.TodoMapperImpl;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Cost of the MapStruct-generated {@link TodoMapper} conversions for a single fully populated todo. No Spring
+ * context is involved; the generated implementation is used directly.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TodoMapperBenchmark {
+
+    private final TodoMapper todoMapper = new TodoMapperImpl();
+    private Todo todo;
+    private TodoRequest request;
+
+    @Setup
+    public void createFixtures() {
+        OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+
+        todo = new Todo();
+        todo.setId(1L);
+        todo.setEntityId(1001L);
+        todo.setTitle("Write the quarterly report");
+        todo.setDescription("Collect the numbers from finance and draft the summary");
+        todo.setCompleted(false);
+        todo.setPriority("high");
+        todo.setDueDate(now.plusDays(3));
+        todo.setAssignedTo("sam");
+        todo.setCreatedAt(now.minusDays(1));
+        todo.setUpdatedAt(now);
+
+        request = new TodoRequest();
+        request.setEntityId(1001L);
+        request.setTitle("Write the quarterly report");
+        request.setDescription("Collect the numbers from finance and draft the summary");
+        request.setCompleted(true);
+        request.setPriority("medium");
+        request.setDueDate(now.plusDays(5));
+        request.setAssignedTo("alex");
+    }
+
+    @Benchmark
+    public TodoResponse toResponse() {
+        return todoMapper.toResponse(todo);
+    }
+
+    @Benchmark
+    public Todo toEntity() {
+        return todoMapper.toEntity(request);
+    }
+
+    @Benchmark
+    public Todo updateEntityFromRequest() {
+        todoMapper.updateEntityFromRequest(request, todo);
+        return todo;
+    }
+}
@@ -0,0 +1,79 @@
+package com.kaizenflow.doitnow.benchmark;
+
+import com.kaizenflow.doitnow.todo.dto.TodoFilter;
+import com.kaizenflow.doitnow.todo.dto.TodoResponse;
+import com.kaizenflow.doitnow.todo.entity.Todo;
+import com.kaizenflow.doitnow.todo.mapper.TodoMapper;
+import com.kaizenflow.doitnow.todo.repository.TodoRepository;
+import com.kaizenflow.doitnow.todo.repository.TodoSpecifications;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Reads one page of the todo listing through managed entities plus {@link TodoMapper} and through the
+ * {@code TodoResponse} projection. Run with the {@code gc} profiler (the default for the {@code jmh} task) and
+ * compare {@code gc.alloc.rate.norm}, the bytes allocated per page.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TodoReadPathBenchmark {
+
+    private static final int SEEDED_TODOS = 10_000;
+
+    @Param({"50", "200"})
+    private int pageSize;
+
+    private ConfigurableApplicationContext context;
+    private TodoRepository todoRepository;
+    private TodoMapper todoMapper;
+    private TransactionTemplate readOnlyTransaction;
+    private Specification<Todo> allTodos;
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        context = BenchmarkApplication.start();
+        BenchmarkApplication.seedTodos(context, SEEDED_TODOS);
+        todoRepository = context.getBean(TodoRepository.class);
+        todoMapper = context.getBean(TodoMapper.class);
+        readOnlyTransaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnlyTransaction.setReadOnly(true);
+        allTodos = TodoSpecifications.matching(new TodoFilter());
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<TodoResponse> entityPath() {
+        return readOnlyTransaction.execute(status -> todoRepository
+                .findBy(allTodos, query -> query.sortBy(TodoSpecifications.NEWEST_FIRST)
+                        .limit(pageSize)
+                        .all())
+                .stream()
+                .map(todoMapper::toResponse)
+                .toList());
+    }
+
+    @Benchmark
+    public List<TodoResponse> projectionPath() {
+        return readOnlyTransaction.execute(
+                status -> todoRepository.findResponses(allTodos, TodoSpecifications.NEWEST_FIRST, pageSize));
+    }
+}
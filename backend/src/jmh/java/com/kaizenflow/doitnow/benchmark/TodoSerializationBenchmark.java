@@ -0,0 +1,109 @@
+package com.kaizenflow.doitnow.benchmark;
+
+import com.kaizenflow.doitnow.todo.dto.TodoResponse;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.ObjectWriter;
+import tools.jackson.databind.cfg.DateTimeFeature;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
+
+/**
+ * Jackson serialization of a {@code List<TodoResponse>}, the last step of every list endpoint, at sizes from a single
+ * todo up to an unpaged listing, in each wire format the API offers and optionally gzipped as response compression
+ * would. The payload size of each combination is printed when its trial ends, so CPU and bytes on the wire can be
+ * compared side by side.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TodoSerializationBenchmark {
+
+    @Param({"1", "100", "10000"})
+    private int size;
+
+    @Param({"json", "cbor", "smile"})
+    private String format;
+
+    @Param({"false", "true"})
+    private boolean gzip;
+
+    private ObjectWriter writer;
+    private List<TodoResponse> todos;
+
+    @Setup
+    public void createFixtures() {
+        // The binary mappers are configured as in WireFormatConfig
+        ObjectMapper mapper =
+                switch (format) {
+                    case "cbor" ->
+                        CBORMapper.builder()
+                                .enable(DateTimeFeature.WRITE_DATES_AS_TIMESTAMPS)
+                                .disable(DateTimeFeature.WRITE_DATE_TIMESTAMPS_AS_NANOSECONDS)
+                                .build();
+                    case "smile" ->
+                        SmileMapper.builder()
+                                .enable(DateTimeFeature.WRITE_DATES_AS_TIMESTAMPS)
+                                .disable(DateTimeFeature.WRITE_DATE_TIMESTAMPS_AS_NANOSECONDS)
+                                .build();
+                    default -> JsonMapper.builder().build();
+                };
+        writer = mapper.writerFor(new TypeReference<List<TodoResponse>>() {});
+
+        OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+        todos = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            todos.add(new TodoResponse(
+                    (long) i,
+                    1000L + i,
+                    "Benchmark todo " + i,
+                    "Generated for benchmarking",
+                    i % 2 == 0,
+                    i % 3 == 0 ? "high" : "medium",
+                    now.plusDays(i % 30),
+                    i % 4 == 0 ? "sam" : null,
+                    now.minusDays(1),
+                    now,
+                    0L));
+        }
+    }
+
+    @TearDown
+    public void reportPayloadSize() {
+        System.out.printf(
+                "%n%s%s, %d todos: %d bytes%n", format, gzip ? "+gzip" : "", size, serialize().length);
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        if (!gzip) {
+            return writer.writeValueAsBytes(todos);
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream compressed = new GZIPOutputStream(bytes)) {
+            writer.writeValue(compressed, todos);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,81 @@
+package com.kaizenflow.doitnow.benchmark;
+
+import com.kaizenflow.doitnow.common.dto.CursorPage;
+import com.kaizenflow.doitnow.todo.dto.TodoChangesResponse;
+import com.kaizenflow.doitnow.todo.dto.TodoFilter;
+import com.kaizenflow.doitnow.todo.dto.TodoResponse;
+import com.kaizenflow.doitnow.todo.service.TodoService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * {@link TodoService} read paths end to end (transaction, query, result mapping) over 10k todos in in-memory H2.
+ * The gc profiler's {@code gc.alloc.rate.norm} gives the bytes allocated per call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TodoServiceReadBenchmark {
+
+    private static final int SEEDED_TODOS = 10_000;
+
+    private ConfigurableApplicationContext context;
+    private TodoService todoService;
+    private TodoFilter openHighPriority;
+    private String secondPageCursor;
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        context = BenchmarkApplication.start();
+        BenchmarkApplication.seedTodos(context, SEEDED_TODOS);
+        todoService = context.getBean(TodoService.class);
+
+        openHighPriority = new TodoFilter();
+        openHighPriority.setCompleted(false);
+        openHighPriority.setPriority("high");
+        secondPageCursor = todoService
+                .getTodos(new TodoFilter(), null, TodoService.DEFAULT_PAGE_SIZE)
+                .getNextCursor();
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+
+    @Benchmark
+    public CursorPage<TodoResponse> firstPage() {
+        return todoService.getTodos(new TodoFilter(), null, TodoService.DEFAULT_PAGE_SIZE);
+    }
+
+    @Benchmark
+    public CursorPage<TodoResponse> secondPage() {
+        return todoService.getTodos(new TodoFilter(), secondPageCursor, TodoService.DEFAULT_PAGE_SIZE);
+    }
+
+    @Benchmark
+    public CursorPage<TodoResponse> filteredPage() {
+        return todoService.getTodos(openHighPriority, null, TodoService.DEFAULT_PAGE_SIZE);
+    }
+
+    /** Served from the second-level cache after warmup. */
+    @Benchmark
+    public TodoResponse byId() {
+        return todoService.getTodoById(ThreadLocalRandom.current().nextLong(1, SEEDED_TODOS + 1));
+    }
+
+    @Benchmark
+    public TodoChangesResponse changesPage() {
+        return todoService.getChangesSince(null, 500);
+    }
+}
@@ -0,0 +1,114 @@
+package com.kaizenflow.doitnow.benchmark;
+
+import com.kaizenflow.doitnow.todo.dto.TodoFilter;
+import com.kaizenflow.doitnow.todo.entity.Todo;
+import com.kaizenflow.doitnow.todo.repository.TodoRepository;
+import com.kaizenflow.doitnow.todo.repository.TodoSpecifications;
+import com.kaizenflow.doitnow.user.dto.UserRequest;
+import com.kaizenflow.doitnow.user.entity.User;
+import com.kaizenflow.doitnow.user.repository.UserRepository;
+import com.kaizenflow.doitnow.user.service.UserService;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Time to delete a user owning {@code todos} todos, one delete per invocation with a freshly seeded user.
+ *
+ * <p>{@code entityCascade} reproduces the former {@code CascadeType.ALL} + {@code orphanRemoval} mapping on
+ * {@code User.todos}: every todo is loaded and removed through the persistence context before the user.
+ * {@code databaseCascade} is {@link UserService#deleteUser}, which writes the tombstones and deletes the user with a
+ * statement each and leaves the todos to {@code ON DELETE CASCADE}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class UserDeleteBenchmark {
+
+    private static final int SEED_BATCH_SIZE = 1000;
+
+    @Param({"100000"})
+    private int todos;
+
+    @Param({"entityCascade", "databaseCascade"})
+    private String mode;
+
+    private ConfigurableApplicationContext context;
+    private UserService userService;
+    private UserRepository userRepository;
+    private TodoRepository todoRepository;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private long nextEntityId = 1;
+    private int nextUser = 1;
+    private Long userId;
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        context = BenchmarkApplication.start();
+        userService = context.getBean(UserService.class);
+        userRepository = context.getBean(UserRepository.class);
+        todoRepository = context.getBean(TodoRepository.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+
+    /** Seeds straight through JDBC so that setup time stays small next to the delete being measured. */
+    @Setup(Level.Invocation)
+    public void seedUser() {
+        UserRequest request = new UserRequest();
+        request.setUsername("bench-user-" + nextUser);
+        request.setEmail("bench-user-" + nextUser + "@example.com");
+        nextUser++;
+        userId = userService.createUser(request).getId();
+
+        for (int seeded = 0; seeded < todos; seeded += SEED_BATCH_SIZE) {
+            List<Object[]> rows = new ArrayList<>(SEED_BATCH_SIZE);
+            for (int i = seeded; i < Math.min(seeded + SEED_BATCH_SIZE, todos); i++) {
+                long entityId = nextEntityId++;
+                rows.add(new Object[] {entityId, "Todo " + entityId, userId});
+            }
+            jdbcTemplate.batchUpdate(
+                    """
+                    INSERT INTO todos (id, entity_id, title, completed, priority, created_at, updated_at, version,
+                                       user_id)
+                    VALUES (nextval('todos_id_seq'), ?, ?, false, 'medium', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP,
+                            0, ?)""",
+                    rows);
+        }
+    }
+
+    @Benchmark
+    public void deleteUser() {
+        if (mode.equals("databaseCascade")) {
+            userService.deleteUser(userId);
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            User user = userRepository.findById(userId).orElseThrow();
+            TodoFilter owned = new TodoFilter();
+            owned.setUserId(userId);
+            List<Todo> userTodos = todoRepository.findAll(TodoSpecifications.matching(owned));
+            todoRepository.deleteAll(userTodos);
+            userRepository.delete(user);
+        });
+    }
+}
@@ -0,0 +1,66 @@
+package com.kaizenflow.doitnow.bulkimport.controller;
+
+import com.kaizenflow.doitnow.bulkimport.dto.ImportFormat;
+import com.kaizenflow.doitnow.bulkimport.dto.ImportResponse;
+import com.kaizenflow.doitnow.bulkimport.service.ImportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import java.io.InputStream;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/import")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+@Tag(name = "Bulk Import", description = "APIs for loading users and todos in bulk, e.g. when onboarding a team")
+public class ImportController {
+
+    private final ImportService importService;
+
+    @Operation(
+            summary = "Import users",
+            description = "Loads users from CSV with a header row naming the columns (username, email) or from"
+                    + " newline-delimited JSON objects with the same fields. Rows that fail validation, whose username"
+                    + " or email is taken, or that repeat an earlier row's username or email are rejected; the others"
+                    + " are imported. Up to " + ImportService.MAX_REPORTED_REJECTIONS + " rejected rows are listed")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Import finished; rejected rows were not imported"),
+        @ApiResponse(responseCode = "400", description = "Input could not be parsed; nothing was imported"),
+        @ApiResponse(responseCode = "415", description = "Content type is neither CSV nor NDJSON")
+    })
+    @PostMapping(
+            value = "/users",
+            consumes = {ImportFormat.CSV_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<ImportResponse> importUsers(
+            @Parameter(hidden = true) @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType, InputStream body) {
+        return ResponseEntity.ok(importService.importUsers(body, ImportFormat.fromContentType(contentType)));
+    }
+
+    @Operation(
+            summary = "Import todos",
+            description = "Loads todos from CSV with a header row naming the columns (entityId, title, description,"
+                    + " completed, priority, dueDate, assignedTo, owner) or from newline-delimited JSON objects with"
+                    + " the same fields. owner is the optional username of the user owning the todo. Rows that fail"
+                    + " validation, whose entity ID exists, is archived or repeats an earlier row's, or whose owner is"
+                    + " not a user are rejected; the others are imported. Up to "
+                    + ImportService.MAX_REPORTED_REJECTIONS + " rejected rows are listed")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Import finished; rejected rows were not imported"),
+        @ApiResponse(responseCode = "400", description = "Input could not be parsed; nothing was imported"),
+        @ApiResponse(responseCode = "415", description = "Content type is neither CSV nor NDJSON")
+    })
+    @PostMapping(
+            value = "/todos",
+            consumes = {ImportFormat.CSV_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<ImportResponse> importTodos(
+            @Parameter(hidden = true) @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType, InputStream body) {
+        return ResponseEntity.ok(importService.importTodos(body, ImportFormat.fromContentType(contentType)));
+    }
+}
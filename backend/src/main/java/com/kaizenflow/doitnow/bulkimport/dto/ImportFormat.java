@@ -0,0 +1,25 @@
+package com.kaizenflow.doitnow.bulkimport.dto;
+
+import com.kaizenflow.doitnow.common.exception.InvalidRequestException;
+import org.springframework.http.MediaType;
+
+/** The encodings an import stream can be sent in, chosen by its Content-Type. */
+public enum ImportFormat {
+    /** Comma-separated values with a header row naming the fields. */
+    CSV,
+    /** One JSON object per line. */
+    NDJSON;
+
+    public static final String CSV_VALUE = "text/csv";
+
+    public static ImportFormat fromContentType(String contentType) {
+        MediaType mediaType = MediaType.parseMediaType(contentType);
+        if (MediaType.APPLICATION_NDJSON.isCompatibleWith(mediaType)) {
+            return NDJSON;
+        }
+        if (MediaType.parseMediaType(CSV_VALUE).isCompatibleWith(mediaType)) {
+            return CSV;
+        }
+        throw new InvalidRequestException("Unsupported import format: " + contentType);
+    }
+}
@@ -0,0 +1,4 @@
+package com.kaizenflow.doitnow.bulkimport.dto;
+
+/** A row that was not imported; rows are numbered from 1 in the order they were sent, not counting a CSV header. */
+public record ImportRejection(long row, String reason) {}
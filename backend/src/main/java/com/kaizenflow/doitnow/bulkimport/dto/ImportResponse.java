@@ -0,0 +1,17 @@
+package com.kaizenflow.doitnow.bulkimport.dto;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportResponse {
+    private long received;
+    private long imported;
+    private long rejected;
+    // The first rejected rows only, in row order; rejected counts all of them
+    private List<ImportRejection> rejections;
+}
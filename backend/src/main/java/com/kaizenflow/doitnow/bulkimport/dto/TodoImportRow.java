@@ -0,0 +1,34 @@
+package com.kaizenflow.doitnow.bulkimport.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import java.time.OffsetDateTime;
+import lombok.Data;
+
+/** A todo to import: the fields of a todo request plus the username of the user owning it, if any. */
+@Data
+public class TodoImportRow {
+
+    @NotNull(message = "Entity ID is required")
+    private Long entityId;
+
+    @NotBlank(message = "Title is required")
+    @Size(max = 255, message = "Title must not exceed 255 characters")
+    private String title;
+
+    private String description;
+
+    private Boolean completed;
+
+    @Pattern(regexp = "low|medium|high", message = "Priority must be low, medium, or high")
+    private String priority;
+
+    private OffsetDateTime dueDate;
+
+    @Size(max = 255, message = "Assigned to must not exceed 255 characters")
+    private String assignedTo;
+
+    private String owner;
+}
@@ -0,0 +1,212 @@
+package com.kaizenflow.doitnow.bulkimport.repository;
+
+import com.kaizenflow.doitnow.bulkimport.dto.ImportRejection;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Collections;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Loads import rows into a temporary staging table and merges them into users and todos with set-based statements.
+ *
+ * <p>On PostgreSQL the rows are streamed into the staging table with {@code COPY ... FROM STDIN} while they are still
+ * being read, so no statement is executed per row; other databases (H2 in the tests) get batched inserts instead.
+ * Duplicates are then found for the whole import at once, both against existing rows and within the import, and the
+ * remaining rows are inserted with a single {@code INSERT ... SELECT}. Staging tables are dropped on commit, so every
+ * method must run in the same transaction.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ImportStagingRepository {
+
+    private static final int BATCH_SIZE = 1000;
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /** Receives the rows to stage, each as its source row followed by the table's columns in order. */
+    @FunctionalInterface
+    public interface RowSink {
+        void add(Object... columns) throws SQLException;
+    }
+
+    @FunctionalInterface
+    public interface RowSource {
+        void writeTo(RowSink sink) throws SQLException;
+    }
+
+    /** Creates the staging table and fills it with the rows, returning how many were staged. */
+    public long stage(ImportTable table, RowSource rows) {
+        Long staged = jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            boolean postgres = connection.isWrapperFor(PGConnection.class);
+            if (!postgres) {
+                // Without TRANSACTIONAL, H2 commits the open transaction before running the DDL. A rolled back
+                // import can leave the table behind on this connection, so it is reused and emptied instead
+                execute(
+                        connection,
+                        "CREATE LOCAL TEMPORARY TABLE IF NOT EXISTS " + table.tableName() + " ("
+                                + table.definition() + ") ON COMMIT DROP TRANSACTIONAL");
+                execute(connection, "DELETE FROM " + table.tableName());
+                return insertBatches(connection, table, rows);
+            }
+            execute(
+                    connection,
+                    "CREATE TEMPORARY TABLE " + table.tableName() + " (" + table.definition() + ") ON COMMIT DROP");
+            long copied = copy(connection.unwrap(PGConnection.class), table, rows);
+            // Temporary tables are never analyzed automatically, and the merge would be planned for a handful of rows
+            execute(connection, "ANALYZE " + table.tableName());
+            return copied;
+        });
+        return staged;
+    }
+
+    /**
+     * Rejects users whose username or email is taken or appears earlier in the import and inserts the rest. Each row
+     * draws its id straight from the sequence, which cannot clash with the id blocks the pooled optimizer hands out
+     * but uses up a whole block per row; the sequence is BIGINT for that reason (V15).
+     */
+    public int mergeUsers() {
+        reject(ImportTable.USERS, "Username already exists", "username IN (SELECT username FROM users)");
+        reject(ImportTable.USERS, "Email already exists", "email IN (SELECT email FROM users)");
+        rejectRepeats(ImportTable.USERS, "username", "Duplicate username in import");
+        rejectRepeats(ImportTable.USERS, "email", "Duplicate email in import");
+        return jdbcTemplate.update("""
+                INSERT INTO users (id, username, email, created_at)
+                SELECT nextval('users_id_seq'), username, email, CURRENT_TIMESTAMP
+                FROM user_import
+                WHERE rejection IS NULL
+                ORDER BY source_row""");
+    }
+
+    /**
+     * Rejects todos whose entity id exists, is archived or appears earlier in the import, or whose owner is not a user,
+     * and inserts the rest. Ids are drawn per row like in {@link #mergeUsers()}.
+     */
+    public int mergeTodos() {
+        reject(ImportTable.TODOS, "Todo already exists", "entity_id IN (SELECT entity_id FROM todos)");
+        reject(ImportTable.TODOS, "Todo is archived", "entity_id IN (SELECT entity_id FROM todos_archive)");
+        reject(
+                ImportTable.TODOS,
+                "Unknown owner",
+                "owner_username IS NOT NULL AND owner_username NOT IN (SELECT username FROM users)");
+        rejectRepeats(ImportTable.TODOS, "entity_id", "Duplicate entity ID in import");
+        return jdbcTemplate.update("""
+                INSERT INTO todos (id, entity_id, title, description, completed, priority, due_date, assigned_to,
+                                   user_id, created_at, updated_at, version)
+                SELECT nextval('todos_id_seq'), i.entity_id, i.title, i.description, i.completed, i.priority,
+                       i.due_date, i.assigned_to, u.id, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, 0
+                FROM todo_import i
+                LEFT JOIN users u ON u.username = i.owner_username
+                WHERE i.rejection IS NULL
+                ORDER BY i.source_row""");
+    }
+
+    public List<ImportRejection> findRejections(ImportTable table, int limit) {
+        return jdbcTemplate.query(
+                "SELECT source_row, rejection FROM " + table.tableName()
+                        + " WHERE rejection IS NOT NULL ORDER BY source_row LIMIT ?",
+                (resultSet, rowNum) -> new ImportRejection(resultSet.getLong(1), resultSet.getString(2)),
+                limit);
+    }
+
+    public long countRejections(ImportTable table) {
+        Long rejected = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM " + table.tableName() + " WHERE rejection IS NOT NULL", Long.class);
+        return rejected == null ? 0 : rejected;
+    }
+
+    private void reject(ImportTable table, String reason, String condition) {
+        jdbcTemplate.update(
+                "UPDATE " + table.tableName() + " SET rejection = ? WHERE rejection IS NULL AND " + condition, reason);
+    }
+
+    // Keeps the first occurrence of each value among the rows that have not been rejected for another reason
+    private void rejectRepeats(ImportTable table, String column, String reason) {
+        reject(
+                table,
+                reason,
+                "source_row IN (SELECT source_row FROM (SELECT source_row, ROW_NUMBER() OVER (PARTITION BY " + column
+                        + " ORDER BY source_row) AS occurrence FROM " + table.tableName()
+                        + " WHERE rejection IS NULL) numbered WHERE occurrence > 1)");
+    }
+
+    private static long copy(PGConnection connection, ImportTable table, RowSource rows) throws SQLException {
+        CopyIn copyIn = connection
+                .getCopyAPI()
+                .copyIn("COPY " + table.tableName() + " (" + table.stagedColumns() + ") FROM STDIN (FORMAT csv)");
+        try {
+            StringBuilder buffer = new StringBuilder(COPY_BUFFER_SIZE);
+            rows.writeTo(columns -> {
+                appendCsvLine(buffer, columns);
+                if (buffer.length() >= COPY_BUFFER_SIZE) {
+                    writeToCopy(copyIn, buffer);
+                }
+            });
+            writeToCopy(copyIn, buffer);
+            return copyIn.endCopy();
+        } finally {
+            if (copyIn.isActive()) {
+                copyIn.cancelCopy();
+            }
+        }
+    }
+
+    private static long insertBatches(Connection connection, ImportTable table, RowSource rows) throws SQLException {
+        String placeholders = String.join(", ", Collections.nCopies(table.stagedColumnCount(), "?"));
+        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO " + table.tableName() + " ("
+                + table.stagedColumns() + ") VALUES (" + placeholders + ")")) {
+            long[] staged = {0};
+            rows.writeTo(columns -> {
+                for (int i = 0; i < columns.length; i++) {
+                    insert.setObject(i + 1, columns[i]);
+                }
+                insert.addBatch();
+                if (++staged[0] % BATCH_SIZE == 0) {
+                    insert.executeBatch();
+                }
+            });
+            insert.executeBatch();
+            return staged[0];
+        }
+    }
+
+    // Every value is quoted, so only an unquoted empty field, which is how null is written, reads back as NULL
+    private static void appendCsvLine(StringBuilder buffer, Object[] columns) {
+        for (int i = 0; i < columns.length; i++) {
+            if (i > 0) {
+                buffer.append(',');
+            }
+            Object value = columns[i];
+            if (value != null) {
+                String text = value instanceof OffsetDateTime dateTime
+                        ? dateTime.format(DateTimeFormatter.ISO_OFFSET_DATE_TIME)
+                        : value.toString();
+                buffer.append('"').append(text.replace("\"", "\"\"")).append('"');
+            }
+        }
+        buffer.append('\n');
+    }
+
+    private static void writeToCopy(CopyIn copyIn, StringBuilder buffer) throws SQLException {
+        byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+        copyIn.writeToCopy(bytes, 0, bytes.length);
+        buffer.setLength(0);
+    }
+
+    private static void execute(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.kaizenflow.doitnow.bulkimport.repository;
+
+import java.util.List;
+
+/**
+ * A temporary staging table that an import is loaded into before it is merged. Besides the imported columns each
+ * table has {@code source_row}, the row's position in the import, and {@code rejection}, set by the merge to the
+ * reason a row is not imported.
+ */
+public enum ImportTable {
+    USERS("user_import", List.of("username", "email"), "username VARCHAR NOT NULL, email VARCHAR NOT NULL"),
+    TODOS(
+            "todo_import",
+            List.of(
+                    "entity_id",
+                    "title",
+                    "description",
+                    "completed",
+                    "priority",
+                    "due_date",
+                    "assigned_to",
+                    "owner_username"),
+            "entity_id BIGINT NOT NULL, title VARCHAR NOT NULL, description VARCHAR, completed BOOLEAN NOT NULL,"
+                    + " priority VARCHAR NOT NULL, due_date TIMESTAMP WITH TIME ZONE, assigned_to VARCHAR,"
+                    + " owner_username VARCHAR");
+
+    private final String tableName;
+    private final List<String> columns;
+    private final String columnDefinitions;
+
+    ImportTable(String tableName, List<String> columns, String columnDefinitions) {
+        this.tableName = tableName;
+        this.columns = columns;
+        this.columnDefinitions = columnDefinitions;
+    }
+
+    public String tableName() {
+        return tableName;
+    }
+
+    /** The imported columns in the order rows are staged, preceded by {@code source_row}. */
+    String stagedColumns() {
+        return "source_row, " + String.join(", ", columns);
+    }
+
+    String definition() {
+        return "source_row BIGINT NOT NULL, " + columnDefinitions + ", rejection VARCHAR";
+    }
+
+    int stagedColumnCount() {
+        return columns.size() + 1;
+    }
+}
@@ -0,0 +1,174 @@
+package com.kaizenflow.doitnow.bulkimport.service;
+
+import com.kaizenflow.doitnow.bulkimport.dto.ImportFormat;
+import com.kaizenflow.doitnow.bulkimport.dto.ImportRejection;
+import com.kaizenflow.doitnow.bulkimport.dto.ImportResponse;
+import com.kaizenflow.doitnow.bulkimport.dto.TodoImportRow;
+import com.kaizenflow.doitnow.bulkimport.repository.ImportStagingRepository;
+import com.kaizenflow.doitnow.bulkimport.repository.ImportTable;
+import com.kaizenflow.doitnow.common.exception.InvalidRequestException;
+import com.kaizenflow.doitnow.common.metrics.ServiceMetrics;
+import com.kaizenflow.doitnow.todo.dto.TodoEvent;
+import com.kaizenflow.doitnow.todo.repository.TodoChangeSequence;
+import com.kaizenflow.doitnow.user.dto.UserRequest;
+import io.micrometer.core.annotation.Timed;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.IntSupplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.core.exc.StreamReadException;
+import tools.jackson.databind.DatabindException;
+import tools.jackson.databind.MappingIterator;
+import tools.jackson.databind.ObjectReader;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.csv.CsvMapper;
+import tools.jackson.dataformat.csv.CsvReadFeature;
+import tools.jackson.dataformat.csv.CsvSchema;
+
+/**
+ * Imports users and todos in bulk from CSV or newline-delimited JSON streams.
+ *
+ * <p>The stream is never held in memory: each row is validated like a single create request and staged as soon as
+ * it is read. Rows that duplicate existing ones or each other, and todos whose owner is not a user, are then rejected
+ * for the whole import at once and the remaining rows are inserted together, in one transaction. Rejected rows are
+ * reported with their reason and do not stop the rest of the import; input that cannot be parsed fails all of it.
+ */
+@Service
+@RequiredArgsConstructor
+@Timed(value = ServiceMetrics.TIMER, description = ServiceMetrics.DESCRIPTION)
+public class ImportService {
+
+    public static final int MAX_REPORTED_REJECTIONS = 1000;
+
+    private static final CsvMapper CSV_MAPPER =
+            CsvMapper.builder().enable(CsvReadFeature.EMPTY_STRING_AS_NULL).build();
+    private static final CsvSchema CSV_SCHEMA = CsvSchema.emptySchema().withHeader();
+
+    private final JsonMapper jsonMapper;
+    private final Validator validator;
+    private final ImportStagingRepository importStagingRepository;
+    private final TodoChangeSequence todoChangeSequence;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Transactional
+    public ImportResponse importUsers(InputStream input, ImportFormat format) {
+        return importRows(
+                input,
+                format,
+                UserRequest.class,
+                ImportTable.USERS,
+                user -> new Object[] {user.getUsername(), user.getEmail()},
+                importStagingRepository::mergeUsers);
+    }
+
+    @Transactional
+    public ImportResponse importTodos(InputStream input, ImportFormat format) {
+        todoChangeSequence.stampOnCommit();
+        ImportResponse response = importRows(
+                input,
+                format,
+                TodoImportRow.class,
+                ImportTable.TODOS,
+                todo -> new Object[] {
+                    todo.getEntityId(),
+                    todo.getTitle(),
+                    todo.getDescription(),
+                    Boolean.TRUE.equals(todo.getCompleted()),
+                    todo.getPriority() == null ? "medium" : todo.getPriority(),
+                    todo.getDueDate(),
+                    todo.getAssignedTo(),
+                    todo.getOwner()
+                },
+                importStagingRepository::mergeTodos);
+        if (response.getImported() > 0) {
+            eventPublisher.publishEvent(TodoEvent.resync());
+        }
+        return response;
+    }
+
+    private <T> ImportResponse importRows(
+            InputStream input,
+            ImportFormat format,
+            Class<T> rowType,
+            ImportTable table,
+            Function<T, Object[]> columns,
+            IntSupplier merge) {
+        List<ImportRejection> invalidRows = new ArrayList<>();
+        long[] received = {0};
+        long[] invalid = {0};
+
+        try {
+            importStagingRepository.stage(table, sink -> {
+                try (MappingIterator<T> rows = readerFor(rowType, format).readValues(input)) {
+                    while (rows.hasNextValue()) {
+                        long row = ++received[0];
+                        String rejection;
+                        T value = null;
+                        try {
+                            value = rows.nextValue();
+                            rejection = validate(value);
+                        } catch (DatabindException ex) {
+                            rejection = "Unreadable row: " + ex.getOriginalMessage();
+                        }
+
+                        if (rejection == null) {
+                            Object[] values = columns.apply(value);
+                            Object[] staged = new Object[values.length + 1];
+                            staged[0] = row;
+                            System.arraycopy(values, 0, staged, 1, values.length);
+                            sink.add(staged);
+                        } else {
+                            invalid[0]++;
+                            if (invalidRows.size() < MAX_REPORTED_REJECTIONS) {
+                                invalidRows.add(new ImportRejection(row, rejection));
+                            }
+                        }
+                    }
+                }
+            });
+        } catch (StreamReadException ex) {
+            // Rolls back the transaction, so none of the rows read before the error are imported
+            throw new InvalidRequestException(
+                    "Malformed " + format + " input at row " + received[0] + ": " + ex.getOriginalMessage());
+        }
+
+        int imported = merge.getAsInt();
+        List<ImportRejection> rejections = Stream.concat(
+                        invalidRows.stream(),
+                        importStagingRepository.findRejections(table, MAX_REPORTED_REJECTIONS).stream())
+                .sorted(Comparator.comparingLong(ImportRejection::row))
+                .limit(MAX_REPORTED_REJECTIONS)
+                .toList();
+        long rejected = invalid[0] + importStagingRepository.countRejections(table);
+        return new ImportResponse(received[0], imported, rejected, rejections);
+    }
+
+    private ObjectReader readerFor(Class<?> rowType, ImportFormat format) {
+        return switch (format) {
+            case CSV -> CSV_MAPPER.readerFor(rowType).with(CSV_SCHEMA);
+            case NDJSON -> jsonMapper.readerFor(rowType);
+        };
+    }
+
+    private <T> String validate(T row) {
+        if (row == null) {
+            return "Empty row";
+        }
+        Set<ConstraintViolation<T>> violations = validator.validate(row);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream().map(ConstraintViolation::getMessage).sorted().collect(Collectors.joining("; "));
+    }
+}
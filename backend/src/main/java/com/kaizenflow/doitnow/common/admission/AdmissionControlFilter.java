@@ -0,0 +1,76 @@
+package com.kaizenflow.doitnow.common.admission;
+
+import com.kaizenflow.doitnow.common.exception.ErrorResponse;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.OffsetDateTime;
+import java.util.concurrent.TimeUnit;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Refuses requests from clients that have used up their budget with {@code 429 Too Many Requests} and a
+ * {@code Retry-After} header, before they reach a controller or take a database connection.
+ *
+ * <p>Budgets are enforced per remote address; the {@code clientIdHeader} header only splits an address's budget
+ * between the clients behind it (see {@link ClientRateLimiter}). Behind a reverse proxy, the proxy's forwarded
+ * headers must be trusted (for instance with {@code server.forward-headers-strategy}) for the remote address to be the
+ * client's. GET, HEAD and OPTIONS requests draw on the read budget, everything else on the write budget.
+ */
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    private final ClientRateLimiter rateLimiter;
+    private final String clientIdHeader;
+    private final JsonMapper jsonMapper;
+
+    public AdmissionControlFilter(ClientRateLimiter rateLimiter, String clientIdHeader, JsonMapper jsonMapper) {
+        this.rateLimiter = rateLimiter;
+        this.clientIdHeader = clientIdHeader;
+        this.jsonMapper = jsonMapper;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long waitNanos = rateLimiter.tryAcquire(request.getRemoteAddr(), clientId(request), kind(request));
+        if (waitNanos == 0) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        // Retry-After is in whole seconds, so round up rather than invite a retry that is refused again
+        long second = TimeUnit.SECONDS.toNanos(1);
+        long retryAfterSeconds = Math.max(1, (waitNanos + second - 1) / second);
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        jsonMapper.writeValue(
+                response.getOutputStream(),
+                new ErrorResponse(
+                        OffsetDateTime.now(),
+                        HttpStatus.TOO_MANY_REQUESTS.value(),
+                        "Too Many Requests",
+                        "Request rate limit exceeded, retry after " + retryAfterSeconds + "s",
+                        request.getRequestURI()));
+    }
+
+    private String clientId(HttpServletRequest request) {
+        String clientId = request.getHeader(clientIdHeader);
+        return clientId == null || clientId.isBlank() ? null : clientId;
+    }
+
+    private static ClientRateLimiter.Kind kind(HttpServletRequest request) {
+        String method = request.getMethod();
+        boolean read = HttpMethod.GET.matches(method)
+                || HttpMethod.HEAD.matches(method)
+                || HttpMethod.OPTIONS.matches(method);
+        return read ? ClientRateLimiter.Kind.READ : ClientRateLimiter.Kind.WRITE;
+    }
+}
@@ -0,0 +1,176 @@
+package com.kaizenflow.doitnow.common.admission;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Keeps read and write {@link TokenBucket}s per remote address and decides whether each request is admitted.
+ *
+ * <p>The address is what a client cannot choose, so it is what the limits are enforced on: an address may spend at
+ * most {@code clientIdsPerAddress} times the configured budget. The client id a request asserts only splits that
+ * budget, so that the clients behind one NAT or proxy do not starve each other; each id gets the configured budget of
+ * its own, and ids beyond {@code clientIdsPerAddress} share one spare pair of the address. Rotating ids therefore
+ * gains a client nothing beyond its address's budget and never touches another address's.
+ *
+ * <p>Memory is bounded by {@code maxAddresses} times {@code clientIdsPerAddress}: buckets left untouched for
+ * {@code idleTimeout} are swept out on a schedule. Addresses that find no room until the next sweep share a single
+ * overflow budget, so a flood of new addresses cannot grow the map nor get past the limits.
+ */
+@Slf4j
+public class ClientRateLimiter {
+
+    public enum Kind {
+        READ,
+        WRITE
+    }
+
+    /** The budget of one kind of request: a burst of {@code capacity}, refilled at {@code tokensPerSecond}. */
+    public record Budget(int capacity, double tokensPerSecond) {
+
+        Budget times(int factor) {
+            return new Budget(capacity * factor, tokensPerSecond * factor);
+        }
+    }
+
+    private final Budget reads;
+    private final Budget writes;
+    private final int maxAddresses;
+    private final int clientIdsPerAddress;
+    private final long idleNanos;
+    private final ConcurrentMap<String, AddressBuckets> addresses = new ConcurrentHashMap<>();
+    private final AddressBuckets overflow;
+    private final Counter rejectedReads;
+    private final Counter rejectedWrites;
+
+    public ClientRateLimiter(
+            Budget reads,
+            Budget writes,
+            int maxAddresses,
+            int clientIdsPerAddress,
+            Duration idleTimeout,
+            MeterRegistry meterRegistry) {
+        this.reads = reads;
+        this.writes = writes;
+        this.maxAddresses = maxAddresses;
+        this.clientIdsPerAddress = clientIdsPerAddress;
+        this.idleNanos = idleTimeout.toNanos();
+        this.overflow = newAddressBuckets(System.nanoTime());
+        this.rejectedReads = rejectionCounter(meterRegistry, Kind.READ);
+        this.rejectedWrites = rejectionCounter(meterRegistry, Kind.WRITE);
+        Gauge.builder("doitnow.admission.clients", addresses, ConcurrentMap::size)
+                .description("Remote addresses with token buckets currently tracked by admission control")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Takes a token for this kind of request from the client id's bucket and from its address's.
+     *
+     * @param clientId the id the client asserts, or {@code null} when it sends none
+     * @return {@code 0} if the request is admitted, otherwise the nanoseconds until the client may retry
+     */
+    public long tryAcquire(String address, String clientId, Kind kind) {
+        long now = System.nanoTime();
+        AddressBuckets buckets = bucketsFor(address, now);
+        // The client's own bucket goes first, so a client refused by it costs the others at its address nothing
+        long wait = buckets.forClient(clientId == null ? "" : clientId, now).of(kind).tryAcquire(now);
+        if (wait == 0) {
+            wait = buckets.shared().of(kind).tryAcquire(now);
+        }
+        if (wait > 0) {
+            (kind == Kind.READ ? rejectedReads : rejectedWrites).increment();
+        }
+        return wait;
+    }
+
+    @Scheduled(fixedDelayString = "${doitnow.admission.eviction-interval:1m}")
+    public void evictIdleClients() {
+        long now = System.nanoTime();
+        int before = addresses.size();
+        addresses.values().removeIf(buckets -> buckets.evictIdle(now, idleNanos));
+        log.debug("Evicted {} idle addresses from admission control", before - addresses.size());
+    }
+
+    // Never sweeps on the request thread: a full map is left to the scheduled sweep, and new addresses overflow
+    private AddressBuckets bucketsFor(String address, long now) {
+        AddressBuckets buckets = addresses.get(address);
+        if (buckets != null) {
+            return buckets;
+        }
+        if (addresses.size() >= maxAddresses) {
+            return overflow;
+        }
+        return addresses.computeIfAbsent(address, key -> newAddressBuckets(now));
+    }
+
+    private AddressBuckets newAddressBuckets(long now) {
+        return new AddressBuckets(
+                newBuckets(reads.times(clientIdsPerAddress), writes.times(clientIdsPerAddress), now),
+                newBuckets(reads, writes, now),
+                new ConcurrentHashMap<>());
+    }
+
+    private static Buckets newBuckets(Budget reads, Budget writes, long now) {
+        return new Buckets(
+                new TokenBucket(reads.capacity(), reads.tokensPerSecond(), now),
+                new TokenBucket(writes.capacity(), writes.tokensPerSecond(), now));
+    }
+
+    private static Counter rejectionCounter(MeterRegistry meterRegistry, Kind kind) {
+        return Counter.builder("doitnow.admission.rejected")
+                .description("Requests refused with 429 because the client ran out of tokens")
+                .tag("kind", kind.name().toLowerCase())
+                .register(meterRegistry);
+    }
+
+    private record Buckets(TokenBucket reads, TokenBucket writes) {
+
+        TokenBucket of(Kind kind) {
+            return kind == Kind.READ ? reads : writes;
+        }
+
+        boolean isIdle(long now, long idleNanos) {
+            return reads.isIdle(now, idleNanos) && writes.isIdle(now, idleNanos);
+        }
+    }
+
+    /** The budget of one address, the buckets of the client ids seen from it and the spare pair for any others. */
+    private final class AddressBuckets {
+
+        private final Buckets shared;
+        private final Buckets spare;
+        private final ConcurrentMap<String, Buckets> clientIds;
+
+        AddressBuckets(Buckets shared, Buckets spare, ConcurrentMap<String, Buckets> clientIds) {
+            this.shared = shared;
+            this.spare = spare;
+            this.clientIds = clientIds;
+        }
+
+        Buckets shared() {
+            return shared;
+        }
+
+        Buckets forClient(String clientId, long now) {
+            Buckets buckets = clientIds.get(clientId);
+            if (buckets != null) {
+                return buckets;
+            }
+            if (clientIds.size() >= clientIdsPerAddress) {
+                return spare;
+            }
+            return clientIds.computeIfAbsent(clientId, id -> newBuckets(reads, writes, now));
+        }
+
+        /** Drops the idle client ids and tells whether the whole address has gone idle. */
+        boolean evictIdle(long now, long idleNanos) {
+            clientIds.values().removeIf(buckets -> buckets.isIdle(now, idleNanos));
+            return clientIds.isEmpty() && shared.isIdle(now, idleNanos) && spare.isIdle(now, idleNanos);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.kaizenflow.doitnow.common.admission;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A lock-free token bucket holding up to {@code capacity} tokens and refilled at {@code tokensPerSecond}.
+ *
+ * <p>Rather than a token count and a refill timestamp, the bucket keeps the single instant at which it will be full
+ * again (the generic cell rate algorithm), so taking a token is one compare-and-set on an {@link AtomicLong}. A bucket
+ * whose full-again instant has passed is indistinguishable from a new one, which is what lets idle clients be
+ * dropped without losing anything.
+ */
+public final class TokenBucket {
+
+    private final long nanosPerToken;
+    private final long burstNanos;
+    private final AtomicLong fullAt;
+
+    public TokenBucket(int capacity, double tokensPerSecond, long nowNanos) {
+        this.nanosPerToken = (long) (1_000_000_000L / tokensPerSecond);
+        this.burstNanos = nanosPerToken * capacity;
+        this.fullAt = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * Takes a token if one is available.
+     *
+     * @return {@code 0} if a token was taken, otherwise the nanoseconds until the next token is available
+     */
+    public long tryAcquire(long nowNanos) {
+        while (true) {
+            long current = fullAt.get();
+            long base = current - nowNanos > 0 ? current : nowNanos;
+            long next = base + nanosPerToken;
+            long wait = next - nowNanos - burstNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /** Whether the bucket has been full for at least {@code idleNanos}, i.e. has not been used in that time. */
+    public boolean isIdle(long nowNanos, long idleNanos) {
+        return nowNanos - fullAt.get() >= idleNanos;
+    }
+}
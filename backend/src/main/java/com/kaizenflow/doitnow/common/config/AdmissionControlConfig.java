@@ -0,0 +1,55 @@
+package com.kaizenflow.doitnow.common.config;
+
+import com.kaizenflow.doitnow.common.admission.AdmissionControlFilter;
+import com.kaizenflow.doitnow.common.admission.ClientRateLimiter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Per-client rate limits in front of the todo, user and import APIs, so that one client replaying its queue in a tight
+ * loop cannot hold every pooled connection. Disable with {@code doitnow.admission.enabled=false}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "doitnow.admission.enabled", matchIfMissing = true)
+public class AdmissionControlConfig {
+
+    @Bean
+    public ClientRateLimiter clientRateLimiter(
+            @Value("${doitnow.admission.reads.capacity:200}") int readCapacity,
+            @Value("${doitnow.admission.reads.tokens-per-second:100}") double readsPerSecond,
+            @Value("${doitnow.admission.writes.capacity:50}") int writeCapacity,
+            @Value("${doitnow.admission.writes.tokens-per-second:20}") double writesPerSecond,
+            @Value("${doitnow.admission.max-addresses:10000}") int maxAddresses,
+            @Value("${doitnow.admission.client-ids-per-address:8}") int clientIdsPerAddress,
+            @Value("${doitnow.admission.idle-timeout:5m}") Duration idleTimeout,
+            MeterRegistry meterRegistry) {
+        return new ClientRateLimiter(
+                new ClientRateLimiter.Budget(readCapacity, readsPerSecond),
+                new ClientRateLimiter.Budget(writeCapacity, writesPerSecond),
+                maxAddresses,
+                clientIdsPerAddress,
+                idleTimeout,
+                meterRegistry);
+    }
+
+    @Bean
+    public FilterRegistrationBean<AdmissionControlFilter> admissionControlFilter(
+            ClientRateLimiter clientRateLimiter,
+            @Value("${doitnow.admission.client-id-header:X-Client-Id}") String clientIdHeader,
+            JsonMapper jsonMapper) {
+        FilterRegistrationBean<AdmissionControlFilter> registration = new FilterRegistrationBean<>(
+                new AdmissionControlFilter(clientRateLimiter, clientIdHeader, jsonMapper));
+        // /api/todos/* also covers the archive endpoints, including the on-demand archival run
+        registration.addUrlPatterns("/api/todos/*", "/api/users/*", "/api/import/*");
+        // Refused requests should cost as little as possible, so run ahead of the statement counting and the rest
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+}
@@ -0,0 +1,67 @@
+package com.kaizenflow.doitnow.common.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import com.kaizenflow.doitnow.todo.entity.Todo;
+import com.kaizenflow.doitnow.user.entity.User;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import java.time.Duration;
+import java.util.List;
+import java.util.OptionalLong;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.hibernate.autoconfigure.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Second-level cache for Hibernate, backed by in-process Caffeine caches exposed through JCache.
+ *
+ * <p>Every region is bounded by entry count and expires entries a fixed time after they were written, so the cache
+ * cannot grow without limit and entries changed behind Hibernate's back (bulk SQL, other instances) age out.
+ *
+ * <p>JPQL bulk statements and native queries make Hibernate drop whole regions, so single-todo writes go through
+ * {@code TodoWriteRepository} over JDBC and evict only their own entries after commit. Multi-row writes (the
+ * filter-driven bulk endpoints, user deletion) still clear the todo regions; archiving evicts the todos it moves.
+ */
+@Configuration
+public class HibernateCacheConfig {
+
+    static final List<String> REGIONS =
+            List.of(Todo.CACHE_REGION, Todo.NATURAL_ID_CACHE_REGION, User.CACHE_REGION, User.NATURAL_ID_CACHE_REGION);
+
+    @Bean
+    public CacheManager hibernateCacheManager(
+            @Value("${doitnow.cache.maximum-size:10000}") long maximumSize,
+            @Value("${doitnow.cache.time-to-live:10m}") Duration timeToLive) {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager();
+
+        for (String region : REGIONS) {
+            if (cacheManager.getCache(region) != null) {
+                continue;
+            }
+            CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+            configuration.setMaximumSize(OptionalLong.of(maximumSize));
+            configuration.setExpireAfterWrite(OptionalLong.of(timeToLive.toNanos()));
+            configuration.setStatisticsEnabled(true);
+            cacheManager.createCache(region, configuration);
+        }
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheManagerCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+    }
+
+    /** Publishes hits, misses, puts and evictions of every region as {@code cache.*} meters. */
+    @Bean
+    public MeterBinder hibernateCacheMetrics(CacheManager hibernateCacheManager) {
+        return registry -> REGIONS.forEach(region ->
+                JCacheMetrics.monitor(registry, hibernateCacheManager.getCache(region), "cacheManager", "hibernate"));
+    }
+}
@@ -0,0 +1,179 @@
+package com.kaizenflow.doitnow.common.config;
+
+import com.kaizenflow.doitnow.common.datasource.ReadWriteRoutingDataSource;
+import com.kaizenflow.doitnow.common.datasource.ReadYourWritesFilter;
+import com.kaizenflow.doitnow.common.datasource.ReplicaReadsJpaDialect;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.sql.SQLException;
+import java.time.Duration;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.thread.Threading;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.PriorityOrdered;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.orm.jpa.JpaTransactionManager;
+
+/**
+ * Sends {@code @Transactional(readOnly = true)} work to a read replica once {@code doitnow.datasource.replica.url} is
+ * set. The application's DataSource becomes a {@link ReadWriteRoutingDataSource} over the primary pool and a second
+ * pool for the replica, and {@link ReadYourWritesFilter} keeps a client's reads on the primary right after its own
+ * writes. Read-only transactions stop populating the second-level cache (see {@link ReplicaReadsJpaDialect}).
+ */
+@Configuration
+@ConditionalOnProperty(name = "doitnow.datasource.replica.url")
+public class ReadReplicaConfig {
+
+    @Bean
+    public static ReplicaRoutingPostProcessor replicaRoutingDataSourcePostProcessor(Environment environment) {
+        return new ReplicaRoutingPostProcessor(environment);
+    }
+
+    @Bean
+    public static ReplicaReadsCachePostProcessor replicaReadsCachePostProcessor() {
+        return new ReplicaReadsCachePostProcessor();
+    }
+
+    @Bean
+    public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter(
+            @Value("${doitnow.admission.client-id-header:X-Client-Id}") String clientIdHeader,
+            @Value("${doitnow.datasource.replica.read-your-writes-window:5s}") Duration window,
+            @Value("${doitnow.admission.max-addresses:10000}") long maxClients) {
+        FilterRegistrationBean<ReadYourWritesFilter> registration =
+                new FilterRegistrationBean<>(new ReadYourWritesFilter(clientIdHeader, window, maxClients));
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 20);
+        return registration;
+    }
+
+    /** Connections handed out per database, and reads that fell back to the primary. */
+    @Bean
+    public MeterBinder readWriteRoutingMetrics(DataSource dataSource) {
+        return registry -> {
+            ReadWriteRoutingDataSource routing;
+            try {
+                routing = dataSource.unwrap(ReadWriteRoutingDataSource.class);
+            } catch (SQLException ex) {
+                return;
+            }
+            FunctionCounter.builder(
+                            "doitnow.datasource.connections",
+                            routing,
+                            ReadWriteRoutingDataSource::getPrimaryConnections)
+                    .description("Connections handed out, by the database they came from")
+                    .tag("target", "primary")
+                    .register(registry);
+            FunctionCounter.builder(
+                            "doitnow.datasource.connections",
+                            routing,
+                            ReadWriteRoutingDataSource::getReplicaConnections)
+                    .description("Connections handed out, by the database they came from")
+                    .tag("target", "replica")
+                    .register(registry);
+            FunctionCounter.builder(
+                            "doitnow.datasource.replica.fallbacks",
+                            routing,
+                            ReadWriteRoutingDataSource::getReplicaFallbacks)
+                    .description("Read-only connections served by the primary because the replica was unavailable")
+                    .register(registry);
+        };
+    }
+
+    /**
+     * Wraps the primary pool before the statement counting and concurrency limiting post-processors see it, so that
+     * statement counting also covers replica connections. With virtual threads, the primary and replica pools each
+     * get their own {@code ConcurrencyLimitingDataSource} here, and the outer limiter leaves the routing alone: one
+     * limiter around both would let reads waiting on a slow replica take the permits writes need. Owns the replica
+     * pool and closes it on shutdown.
+     */
+    public static class ReplicaRoutingPostProcessor implements BeanPostProcessor, PriorityOrdered, DisposableBean {
+
+        private final Environment environment;
+        private ReadWriteRoutingDataSource routing;
+
+        ReplicaRoutingPostProcessor(Environment environment) {
+            this.environment = environment;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!(bean instanceof DataSource primary) || routing != null) {
+                return bean;
+            }
+            HikariDataSource replica = replicaPool();
+            DataSource primaryTarget = primary;
+            DataSource replicaTarget = replica;
+            if (Threading.VIRTUAL.isActive(environment)) {
+                primaryTarget = VirtualThreadConfig.ConcurrencyLimitingPostProcessor.limit(
+                        primary,
+                        "doitnow.datasource",
+                        environment.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10),
+                        environment);
+                replicaTarget = VirtualThreadConfig.ConcurrencyLimitingPostProcessor.limit(
+                        replica, "doitnow.datasource.replica", replica.getMaximumPoolSize(), environment);
+            }
+            routing = new ReadWriteRoutingDataSource(
+                    primaryTarget,
+                    replicaTarget,
+                    environment.getProperty(
+                            "doitnow.datasource.replica.retry-interval", Duration.class, Duration.ofSeconds(30)));
+            // Defers the routing decision to the first statement, when the transaction's read-only flag is set
+            return new LazyConnectionDataSourceProxy(routing);
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+
+        @Override
+        public void destroy() {
+            if (routing != null) {
+                routing.close();
+            }
+        }
+
+        private HikariDataSource replicaPool() {
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName("replica");
+            replica.setJdbcUrl(environment.getRequiredProperty("doitnow.datasource.replica.url"));
+            replica.setUsername(environment.getProperty(
+                    "doitnow.datasource.replica.username", environment.getProperty("spring.datasource.username")));
+            replica.setPassword(environment.getProperty(
+                    "doitnow.datasource.replica.password", environment.getProperty("spring.datasource.password")));
+            replica.setMaximumPoolSize(environment.getProperty(
+                    "doitnow.datasource.replica.maximum-pool-size",
+                    Integer.class,
+                    environment.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10)));
+            // Give up on the replica quickly; the caller falls back to the primary
+            replica.setConnectionTimeout(environment
+                    .getProperty("doitnow.datasource.replica.connection-timeout", Duration.class, Duration.ofSeconds(1))
+                    .toMillis());
+            // Start even while the replica is down rather than failing the whole application
+            replica.setInitializationFailTimeout(-1);
+            replica.setReadOnly(true);
+            return replica;
+        }
+    }
+
+    /** Makes the JPA transaction manager begin transactions through {@link ReplicaReadsJpaDialect}. */
+    public static class ReplicaReadsCachePostProcessor implements BeanPostProcessor {
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (bean instanceof JpaTransactionManager transactionManager) {
+                transactionManager.setJpaDialect(new ReplicaReadsJpaDialect());
+            }
+            return bean;
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.kaizenflow.doitnow.common.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/** Enables {@code @Scheduled} methods, such as the event stream heartbeat. */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {}
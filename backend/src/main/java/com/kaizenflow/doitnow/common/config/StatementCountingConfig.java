@@ -0,0 +1,74 @@
+package com.kaizenflow.doitnow.common.config;
+
+import com.kaizenflow.doitnow.common.datasource.SqlStatementsEndpoint;
+import com.kaizenflow.doitnow.common.datasource.StatementCountingFilter;
+import com.kaizenflow.doitnow.common.datasource.StatementCountingListener;
+import com.kaizenflow.doitnow.common.datasource.StatementStatistics;
+import io.micrometer.core.instrument.MeterRegistry;
+import javax.sql.DataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Counts JDBC statements per HTTP request: the DataSource is wrapped in a datasource-proxy that reports every
+ * execution to {@link StatementCountingListener}, and {@link StatementCountingFilter} scopes the counting to each
+ * request. Disable with {@code doitnow.sql.statement-counting.enabled=false}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "doitnow.sql.statement-counting.enabled", matchIfMissing = true)
+public class StatementCountingConfig {
+
+    @Bean
+    public static StatementCountingPostProcessor statementCountingDataSourcePostProcessor() {
+        return new StatementCountingPostProcessor();
+    }
+
+    @Bean
+    public StatementStatistics statementStatistics(MeterRegistry meterRegistry) {
+        return new StatementStatistics(meterRegistry);
+    }
+
+    @Bean
+    public StatementCountingFilter statementCountingFilter(
+            StatementStatistics statementStatistics,
+            @Value("${doitnow.sql.max-statements-per-request:20}") int maxStatementsPerRequest,
+            @Value("${doitnow.sql.max-repeated-statements:5}") int maxRepeatedStatements) {
+        return new StatementCountingFilter(statementStatistics, maxStatementsPerRequest, maxRepeatedStatements);
+    }
+
+    @Bean
+    public SqlStatementsEndpoint sqlStatementsEndpoint(StatementStatistics statementStatistics) {
+        return new SqlStatementsEndpoint(statementStatistics);
+    }
+
+    /**
+     * Wraps the DataSource in the counting proxy. Runs after replica routing, so replica statements are counted too,
+     * and before concurrency limiting, so time spent waiting for a permit is not part of any statement.
+     */
+    public static class StatementCountingPostProcessor implements BeanPostProcessor, Ordered {
+
+        public static final int ORDER = Ordered.HIGHEST_PRECEDENCE + 10;
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!(bean instanceof DataSource dataSource) || bean instanceof ProxyDataSource) {
+                return bean;
+            }
+            return ProxyDataSourceBuilder.create(dataSource)
+                    .name(beanName)
+                    .listener(new StatementCountingListener())
+                    .build();
+        }
+
+        @Override
+        public int getOrder() {
+            return ORDER;
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.kaizenflow.doitnow.common.config;
+
+import com.kaizenflow.doitnow.common.datasource.ConcurrencyLimitingDataSource;
+import com.kaizenflow.doitnow.common.datasource.ReadWriteRoutingDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.sql.SQLException;
+import java.time.Duration;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+
+/**
+ * Settings that only apply when {@code spring.threads.virtual.enabled} is on. Spring Boot then serves requests, MVC
+ * async work (such as the streamed export) and {@code @Async} methods on virtual threads; this configuration puts a
+ * {@link ConcurrencyLimitingDataSource} in front of the connection pool, since the request thread pool no longer
+ * bounds how many callers reach it. With a read replica, the primary and replica pools each get their own limiter
+ * inside the routing (see {@link ReadReplicaConfig}), so that reads queueing for the replica never hold back writes.
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadConfig {
+
+    @Bean
+    public static ConcurrencyLimitingPostProcessor concurrencyLimitingDataSourcePostProcessor(Environment environment) {
+        return new ConcurrencyLimitingPostProcessor(environment);
+    }
+
+    /** Permits left in front of each pool, next to Hikari's own {@code hikaricp.connections.*} gauges. */
+    @Bean
+    public MeterBinder concurrencyLimitingDataSourceMetrics(DataSource dataSource) {
+        return registry -> {
+            bindPermitGauges(registry, dataSource, "primary");
+            try {
+                if (dataSource.isWrapperFor(ReadWriteRoutingDataSource.class)) {
+                    bindPermitGauges(
+                            registry,
+                            dataSource.unwrap(ReadWriteRoutingDataSource.class).getReplica(),
+                            "replica");
+                }
+            } catch (SQLException ex) {
+                // No routing to look into
+            }
+        };
+    }
+
+    private static void bindPermitGauges(MeterRegistry registry, DataSource dataSource, String target) {
+        ConcurrencyLimitingDataSource limited;
+        try {
+            limited = dataSource.unwrap(ConcurrencyLimitingDataSource.class);
+        } catch (SQLException ex) {
+            return;
+        }
+        Gauge.builder(
+                        "doitnow.datasource.permits.available",
+                        limited,
+                        ConcurrencyLimitingDataSource::getAvailablePermits)
+                .description("Connections callers may still take before they have to wait")
+                .tag("target", target)
+                .register(registry);
+        Gauge.builder(
+                        "doitnow.datasource.permits.max",
+                        limited,
+                        ConcurrencyLimitingDataSource::getMaxConcurrentConnections)
+                .tag("target", target)
+                .register(registry);
+    }
+
+    /**
+     * Puts the {@link ConcurrencyLimitingDataSource} in front of the DataSource. Runs last, so the permit is taken
+     * before anything else, statement counting included, touches the connection. Leaves a read-write routing
+     * DataSource alone, since its targets are already limited one by one.
+     */
+    public static class ConcurrencyLimitingPostProcessor implements BeanPostProcessor, Ordered {
+
+        public static final int ORDER = StatementCountingConfig.StatementCountingPostProcessor.ORDER + 10;
+
+        private final Environment environment;
+
+        ConcurrencyLimitingPostProcessor(Environment environment) {
+            this.environment = environment;
+        }
+
+        /**
+         * Limits {@code target} to {@code doitnow.datasource[.replica].max-concurrent-connections} callers, by default
+         * the size of its pool.
+         */
+        static ConcurrencyLimitingDataSource limit(
+                DataSource target, String propertyPrefix, int poolSize, Environment environment) {
+            int maxConcurrentConnections = environment.getProperty(
+                    propertyPrefix + ".max-concurrent-connections", Integer.class, poolSize);
+            Duration acquireTimeout = environment.getProperty(
+                    "doitnow.datasource.acquire-timeout", Duration.class, Duration.ofSeconds(5));
+            return new ConcurrencyLimitingDataSource(target, maxConcurrentConnections, acquireTimeout);
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!(bean instanceof DataSource dataSource)
+                    || bean instanceof ConcurrencyLimitingDataSource
+                    || isRouting(dataSource)) {
+                return bean;
+            }
+            int poolSize = environment.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10);
+            return limit(dataSource, "doitnow.datasource", poolSize, environment);
+        }
+
+        @Override
+        public int getOrder() {
+            return ORDER;
+        }
+
+        private static boolean isRouting(DataSource dataSource) {
+            try {
+                return dataSource.isWrapperFor(ReadWriteRoutingDataSource.class);
+            } catch (SQLException ex) {
+                return false;
+            }
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.kaizenflow.doitnow.common.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.converter.HttpMessageConverters;
+import org.springframework.http.converter.cbor.JacksonCborHttpMessageConverter;
+import org.springframework.http.converter.smile.JacksonSmileHttpMessageConverter;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import tools.jackson.databind.cfg.DateTimeFeature;
+import tools.jackson.dataformat.cbor.CBORMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
+
+/**
+ * Binary wire formats offered next to JSON. Clients that send {@code Accept: application/cbor} or
+ * {@code Accept: application/x-jackson-smile} get the same response bodies in that encoding, and may send request
+ * bodies in it too; everyone else keeps getting JSON, which stays the first choice for {@code Accept: *}{@code /*}.
+ *
+ * <p>Field names are still written once per object, but as length-prefixed (CBOR) or back-referenced (Smile) binary
+ * strings, and dates go out as epoch milliseconds rather than ISO strings, so they read back in UTC.
+ */
+@Configuration
+public class WireFormatConfig implements WebMvcConfigurer {
+
+    @Override
+    public void configureMessageConverters(HttpMessageConverters.ServerBuilder builder) {
+        builder.withCborConverter(new JacksonCborHttpMessageConverter(CBORMapper.builder()
+                        .enable(DateTimeFeature.WRITE_DATES_AS_TIMESTAMPS)
+                        .disable(DateTimeFeature.WRITE_DATE_TIMESTAMPS_AS_NANOSECONDS)
+                        .build()))
+                .withSmileConverter(new JacksonSmileHttpMessageConverter(SmileMapper.builder()
+                        .enable(DateTimeFeature.WRITE_DATES_AS_TIMESTAMPS)
+                        .disable(DateTimeFeature.WRITE_DATE_TIMESTAMPS_AS_NANOSECONDS)
+                        .build()));
+    }
+
+    /**
+     * The same URL now has several representations, and ETags only track the todos behind them (which is why they
+     * are weak, see TodoETags), so caches must key responses on the Accept header as well.
+     */
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new HandlerInterceptor() {
+                    @Override
+                    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+                        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+                        return true;
+                    }
+                })
+                .addPathPatterns("/api/**");
+    }
+}
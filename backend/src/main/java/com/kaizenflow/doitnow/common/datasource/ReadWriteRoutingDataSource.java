@@ -0,0 +1,148 @@
+package com.kaizenflow.doitnow.common.datasource;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Hands out replica connections to read-only transactions and primary connections to everything else.
+ *
+ * <p>The decision is made when a connection is requested, so this must sit behind a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}: JPA asks for the connection while it is
+ * still beginning the transaction, before the read-only flag is visible, and the proxy defers that request to the
+ * first statement. A thread can opt out with {@link #onPrimary()}, e.g. for reads that must see their own writes.
+ *
+ * <p>When the replica cannot hand out a connection, the caller gets a primary one instead and the replica is skipped
+ * for {@code replicaRetryInterval} before it is tried again.
+ *
+ * <p>Either target may be wrapped, for instance in a {@link ConcurrencyLimitingDataSource} of its own; closing this
+ * closes the pools underneath.
+ */
+@Slf4j
+public class ReadWriteRoutingDataSource extends AbstractDataSource implements Closeable {
+
+    private static final ThreadLocal<Boolean> PRIMARY_ONLY = new ThreadLocal<>();
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final long replicaRetryIntervalNanos;
+    // System.nanoTime() after which the replica may be tried again; 0 while it is healthy
+    private final AtomicLong replicaDownUntil = new AtomicLong();
+    private final LongAdder primaryConnections = new LongAdder();
+    private final LongAdder replicaConnections = new LongAdder();
+    private final LongAdder replicaFallbacks = new LongAdder();
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, Duration replicaRetryInterval) {
+        this.primary = primary;
+        this.replica = replica;
+        this.replicaRetryIntervalNanos = replicaRetryInterval.toNanos();
+    }
+
+    /**
+     * Sends every connection this thread asks for to the primary until the returned handle is closed. Only affects
+     * connections not yet obtained, so call it before the transaction's first statement.
+     */
+    public static PrimaryOnly onPrimary() {
+        Boolean previous = PRIMARY_ONLY.get();
+        PRIMARY_ONLY.set(Boolean.TRUE);
+        return () -> {
+            if (previous == null) {
+                PRIMARY_ONLY.remove();
+            } else {
+                PRIMARY_ONLY.set(previous);
+            }
+        };
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!routeToReplica()) {
+            primaryConnections.increment();
+            return primary.getConnection();
+        }
+        try {
+            Connection connection = replica.getConnection();
+            replicaConnections.increment();
+            return connection;
+        } catch (SQLException ex) {
+            replicaDownUntil.set(Math.max(1, System.nanoTime() + replicaRetryIntervalNanos));
+            replicaFallbacks.increment();
+            log.warn("Replica unavailable, sending reads to the primary for {}ms: {}",
+                    replicaRetryIntervalNanos / 1_000_000, ex.getMessage());
+            primaryConnections.increment();
+            return primary.getConnection();
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return primary.getConnection(username, password);
+    }
+
+    // Lets Boot find the primary Hikari pool for its pool metrics and health checks
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        return iface.isInstance(this) ? iface.cast(this) : primary.unwrap(iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return iface.isInstance(this) || primary.isWrapperFor(iface);
+    }
+
+    public long getPrimaryConnections() {
+        return primaryConnections.sum();
+    }
+
+    public long getReplicaConnections() {
+        return replicaConnections.sum();
+    }
+
+    public long getReplicaFallbacks() {
+        return replicaFallbacks.sum();
+    }
+
+    /** The replica as it was passed in, e.g. to find a {@link ConcurrencyLimitingDataSource} wrapped around it. */
+    public DataSource getReplica() {
+        return replica;
+    }
+
+    @Override
+    public void close() {
+        close(replica, "replica");
+        close(primary, "primary");
+    }
+
+    private static void close(DataSource dataSource, String target) {
+        try {
+            if (dataSource.isWrapperFor(Closeable.class)) {
+                dataSource.unwrap(Closeable.class).close();
+            }
+        } catch (SQLException | IOException ex) {
+            log.warn("Failed to close the {} DataSource", target, ex);
+        }
+    }
+
+    private boolean routeToReplica() {
+        if (PRIMARY_ONLY.get() != null || !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return false;
+        }
+        long downUntil = replicaDownUntil.get();
+        return downUntil == 0 || System.nanoTime() - downUntil >= 0;
+    }
+
+    /** Handle returned by {@link #onPrimary()}; closing it restores the previous routing. */
+    @FunctionalInterface
+    public interface PrimaryOnly extends AutoCloseable {
+        @Override
+        void close();
+    }
+}
@@ -0,0 +1,69 @@
+package com.kaizenflow.doitnow.common.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.Duration;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Keeps a client's reads on the primary for {@code window} after each of its writes, so that it sees what it just
+ * wrote even while the replica is catching up. Clients are told apart by the {@code clientIdHeader} header, or by
+ * remote address without one; unlike admission control, this can trust the header, since claiming another client's
+ * id only sends the claimant's own reads to the primary.
+ *
+ * <p>Only the request thread is pinned; work handed to another thread, such as a streamed export, may still read
+ * from the replica.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    private final String clientIdHeader;
+    private final Cache<String, Boolean> recentWriters;
+
+    public ReadYourWritesFilter(String clientIdHeader, Duration window, long maxClients) {
+        this.clientIdHeader = clientIdHeader;
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(window)
+                .maximumSize(maxClients)
+                .build();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String clientId = clientId(request);
+        if (isWrite(request)) {
+            try {
+                filterChain.doFilter(request, response);
+            } finally {
+                // Stamped once the write has committed, so the window covers the replica's lag behind the commit
+                recentWriters.put(clientId, Boolean.TRUE);
+            }
+            return;
+        }
+        if (recentWriters.getIfPresent(clientId) == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        try (ReadWriteRoutingDataSource.PrimaryOnly primaryOnly = ReadWriteRoutingDataSource.onPrimary()) {
+            filterChain.doFilter(request, response);
+        }
+    }
+
+    private String clientId(HttpServletRequest request) {
+        String clientId = request.getHeader(clientIdHeader);
+        return clientId == null || clientId.isBlank() ? request.getRemoteAddr() : clientId;
+    }
+
+    private static boolean isWrite(HttpServletRequest request) {
+        String method = request.getMethod();
+        return !(HttpMethod.GET.matches(method)
+                || HttpMethod.HEAD.matches(method)
+                || HttpMethod.OPTIONS.matches(method));
+    }
+}
@@ -0,0 +1,29 @@
+package com.kaizenflow.doitnow.common.datasource;
+
+import jakarta.persistence.CacheStoreMode;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import java.sql.SQLException;
+import org.springframework.orm.jpa.vendor.HibernateJpaDialect;
+import org.springframework.transaction.TransactionDefinition;
+
+/**
+ * Keeps what read-only transactions load out of the second-level cache, because with a replica they may load it from
+ * a database that is behind the primary. Cached entries would otherwise outlive the replica's lag and be served to
+ * read-write transactions too. Read-only transactions still read from the cache.
+ *
+ * <p>The store mode is set on the transaction's EntityManager, which is closed with the transaction since
+ * open-in-view is off, so there is nothing to reset afterwards.
+ */
+public class ReplicaReadsJpaDialect extends HibernateJpaDialect {
+
+    @Override
+    public Object beginTransaction(EntityManager entityManager, TransactionDefinition definition)
+            throws PersistenceException, SQLException {
+        Object transactionData = super.beginTransaction(entityManager, definition);
+        if (definition.isReadOnly()) {
+            entityManager.setCacheStoreMode(CacheStoreMode.BYPASS);
+        }
+        return transactionData;
+    }
+}
@@ -0,0 +1,27 @@
+package com.kaizenflow.doitnow.common.datasource;
+
+import java.util.Map;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+/** {@code /actuator/sqlstatements}: statement counts per endpoint; DELETE resets them. */
+@Endpoint(id = "sqlstatements")
+public class SqlStatementsEndpoint {
+
+    private final StatementStatistics statistics;
+
+    public SqlStatementsEndpoint(StatementStatistics statistics) {
+        this.statistics = statistics;
+    }
+
+    @ReadOperation
+    public Map<String, StatementStatistics.EndpointSnapshot> statements() {
+        return statistics.snapshot();
+    }
+
+    @DeleteOperation
+    public void reset() {
+        statistics.reset();
+    }
+}
@@ -0,0 +1,67 @@
+package com.kaizenflow.doitnow.common.datasource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Counts the statements each request executes and warns about requests that run more than
+ * {@code maxStatementsPerRequest} statements, or the same statement more than {@code maxRepeatedStatements} times
+ * (the usual N+1 shape), logging the offending SQL.
+ *
+ * <p>The request's {@link StatementTally} is left in the {@link #TALLY_ATTRIBUTE} request attribute. Work done after
+ * the request thread returns, such as a streamed export, is not counted.
+ */
+@Slf4j
+public class StatementCountingFilter extends OncePerRequestFilter {
+
+    public static final String TALLY_ATTRIBUTE = StatementCountingFilter.class.getName() + ".tally";
+
+    private final StatementStatistics statistics;
+    private final int maxStatementsPerRequest;
+    private final int maxRepeatedStatements;
+
+    public StatementCountingFilter(
+            StatementStatistics statistics, int maxStatementsPerRequest, int maxRepeatedStatements) {
+        this.statistics = statistics;
+        this.maxStatementsPerRequest = maxStatementsPerRequest;
+        this.maxRepeatedStatements = maxRepeatedStatements;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        StatementTally tally = StatementCountingListener.begin();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            StatementCountingListener.end();
+            request.setAttribute(TALLY_ATTRIBUTE, tally);
+            record(request, tally);
+        }
+    }
+
+    private void record(HttpServletRequest request, StatementTally tally) {
+        // The mapped pattern keeps one entry per endpoint rather than one per todo id
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNMAPPED";
+        boolean flagged =
+                tally.getCount() > maxStatementsPerRequest || tally.getMaxRepetitions() > maxRepeatedStatements;
+
+        statistics.record(request.getMethod(), uri, tally, flagged);
+        if (flagged) {
+            log.warn(
+                    "{} {} executed {} SQL statements (most repeated {} times): {}",
+                    request.getMethod(),
+                    request.getRequestURI(),
+                    tally.getCount(),
+                    tally.getMaxRepetitions(),
+                    tally.getStatements());
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.kaizenflow.doitnow.common.datasource;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+/**
+ * Records every statement executed through the proxied DataSource into the {@link StatementTally} bound to the
+ * current thread, if any. Statements on threads without a tally are not recorded.
+ */
+public class StatementCountingListener implements QueryExecutionListener {
+
+    private static final ThreadLocal<StatementTally> CURRENT = new ThreadLocal<>();
+
+    /** Starts counting the statements executed by the current thread. */
+    public static StatementTally begin() {
+        StatementTally tally = new StatementTally();
+        CURRENT.set(tally);
+        return tally;
+    }
+
+    /** Stops counting for the current thread. */
+    public static void end() {
+        CURRENT.remove();
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {}
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        StatementTally tally = CURRENT.get();
+        if (tally != null) {
+            tally.record(queryInfoList.stream().map(QueryInfo::getQuery).collect(Collectors.joining("; ")));
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.kaizenflow.doitnow.common.datasource;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Statement counts aggregated per endpoint since startup (or the last reset), served by the {@code sqlstatements}
+ * actuator endpoint and published as the {@code doitnow.http.sql.statements} distribution summary.
+ */
+public class StatementStatistics {
+
+    private final ConcurrentMap<String, EndpointStatistics> endpoints = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+
+    public StatementStatistics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    void record(String method, String uri, StatementTally tally, boolean flagged) {
+        endpoints.computeIfAbsent(method + " " + uri, key -> new EndpointStatistics()).record(tally, flagged);
+        DistributionSummary.builder("doitnow.http.sql.statements")
+                .description("JDBC statements executed per HTTP request")
+                .tags("method", method, "uri", uri)
+                .register(meterRegistry)
+                .record(tally.getCount());
+    }
+
+    public Map<String, EndpointSnapshot> snapshot() {
+        Map<String, EndpointSnapshot> snapshot = new TreeMap<>();
+        endpoints.forEach((endpoint, statistics) -> snapshot.put(endpoint, statistics.snapshot()));
+        return snapshot;
+    }
+
+    public void reset() {
+        endpoints.clear();
+    }
+
+    /**
+     * Totals for one endpoint. {@code lastFlaggedStatements} holds the statements of the most recent request that
+     * went over a threshold, most repeated first.
+     */
+    public record EndpointSnapshot(
+            long requests,
+            long statements,
+            double averageStatements,
+            int maxStatements,
+            long flaggedRequests,
+            List<String> lastFlaggedStatements) {}
+
+    private static final class EndpointStatistics {
+
+        private long requests;
+        private long statements;
+        private int maxStatements;
+        private long flaggedRequests;
+        private List<String> lastFlaggedStatements = List.of();
+
+        synchronized void record(StatementTally tally, boolean flagged) {
+            requests++;
+            statements += tally.getCount();
+            maxStatements = Math.max(maxStatements, tally.getCount());
+            if (flagged) {
+                flaggedRequests++;
+                lastFlaggedStatements = describe(tally);
+            }
+        }
+
+        synchronized EndpointSnapshot snapshot() {
+            return new EndpointSnapshot(
+                    requests,
+                    statements,
+                    requests == 0 ? 0 : (double) statements / requests,
+                    maxStatements,
+                    flaggedRequests,
+                    lastFlaggedStatements);
+        }
+
+        private static List<String> describe(StatementTally tally) {
+            return tally.getStatements().entrySet().stream()
+                    .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+                    .limit(10)
+                    .map(entry -> entry.getValue() + "x " + entry.getKey())
+                    .toList();
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.kaizenflow.doitnow.common.datasource;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The JDBC statements executed while handling one request: how many ran in total and how often each distinct SQL
+ * string ran. A batch counts as one statement, since it is one round trip.
+ */
+public class StatementTally {
+
+    static final int MAX_DISTINCT_STATEMENTS = 100;
+
+    private int count;
+    private final Map<String, Integer> statements = new LinkedHashMap<>();
+
+    void record(String sql) {
+        count++;
+        if (statements.size() < MAX_DISTINCT_STATEMENTS || statements.containsKey(sql)) {
+            statements.merge(sql, 1, Integer::sum);
+        }
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    /** Executions per distinct SQL string, in order of first execution; at most 100 entries. */
+    public Map<String, Integer> getStatements() {
+        return Collections.unmodifiableMap(statements);
+    }
+
+    /** How often the most repeated statement ran, the signature of an N+1 access pattern. */
+    public int getMaxRepetitions() {
+        return statements.values().stream().mapToInt(Integer::intValue).max().orElse(0);
+    }
+}
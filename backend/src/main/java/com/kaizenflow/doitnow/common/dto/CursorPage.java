@@ -0,0 +1,18 @@
+package com.kaizenflow.doitnow.common.dto;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * A single page of a keyset-paginated listing.
+ *
+ * <p>{@code nextCursor} is opaque to clients and is {@code null} once the last page has been reached.
+ */
+@Data
+@AllArgsConstructor
+public class CursorPage<T> {
+    private List<T> items;
+    private String nextCursor;
+    private int limit;
+}
@@ -0,0 +1,12 @@
+package com.kaizenflow.doitnow.common.exception;
+
+/**
+ * A request the client has to correct before retrying it: a malformed cursor, watermark or If-Match header, an
+ * unusable filter or search query, duplicate user details or unreadable import input. Answered with 400 and the
+ * message as written, so it must only ever describe the client's input.
+ */
+public class InvalidRequestException extends RuntimeException {
+    public InvalidRequestException(String message) {
+        super(message);
+    }
+}
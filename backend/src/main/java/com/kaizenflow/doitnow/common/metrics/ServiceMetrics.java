@@ -0,0 +1,13 @@
+package com.kaizenflow.doitnow.common.metrics;
+
+/**
+ * The timer every service class is annotated with, {@code @Timed(value = ServiceMetrics.TIMER, description =
+ * ServiceMetrics.DESCRIPTION)}. Micrometer tags it with the class and method, so one name covers all services.
+ */
+public final class ServiceMetrics {
+
+    public static final String TIMER = "doitnow.service";
+    public static final String DESCRIPTION = "Time spent in service methods, tagged by class and method";
+
+    private ServiceMetrics() {}
+}
@@ -0,0 +1,85 @@
+package com.kaizenflow.doitnow.todo.controller;
+
+import com.kaizenflow.doitnow.common.dto.CursorPage;
+import com.kaizenflow.doitnow.todo.dto.TodoBulkResponse;
+import com.kaizenflow.doitnow.todo.dto.TodoResponse;
+import com.kaizenflow.doitnow.todo.service.TodoArchiveService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import java.time.OffsetDateTime;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/todos/archive")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+@Tag(name = "Todo Archive", description = "APIs for reading, restoring and archiving old completed todos")
+public class TodoArchiveController {
+
+    private final TodoArchiveService todoArchiveService;
+
+    @Operation(
+            summary = "Get archived todos",
+            description = "Retrieves archived todos one page at a time, most recently updated first. Pass the"
+                    + " returned nextCursor to fetch the following page")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved archived todos"),
+        @ApiResponse(responseCode = "400", description = "Invalid cursor")
+    })
+    @GetMapping
+    public ResponseEntity<CursorPage<TodoResponse>> getArchivedTodos(
+            @Parameter(description = "Cursor returned by the previous page") @RequestParam(required = false)
+                    String cursor,
+            @Parameter(description = "Maximum number of todos per page (capped at 200)")
+                    @RequestParam(defaultValue = "50")
+                    int limit) {
+        return ResponseEntity.ok(todoArchiveService.getArchivedTodos(cursor, limit));
+    }
+
+    @Operation(summary = "Get archived todo by ID", description = "Retrieves an archived todo by its entity ID")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Archived todo found"),
+        @ApiResponse(responseCode = "404", description = "Archived todo not found")
+    })
+    @GetMapping("/{id}")
+    public ResponseEntity<TodoResponse> getArchivedTodo(
+            @Parameter(description = "Todo entity ID", required = true) @PathVariable Long id) {
+        return ResponseEntity.ok(todoArchiveService.getArchivedTodo(id));
+    }
+
+    @Operation(
+            summary = "Restore archived todo",
+            description = "Moves an archived todo back into the active todos. The restored todo counts as changed,"
+                    + " so it shows up again in the changes feed")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Todo restored successfully"),
+        @ApiResponse(responseCode = "404", description = "Archived todo not found"),
+        @ApiResponse(responseCode = "400", description = "An active todo already has this entity ID")
+    })
+    @PostMapping("/{id}/restore")
+    public ResponseEntity<TodoResponse> restoreTodo(
+            @Parameter(description = "Todo entity ID", required = true) @PathVariable Long id) {
+        return ResponseEntity.ok(todoArchiveService.restoreTodo(id));
+    }
+
+    @Operation(
+            summary = "Run archival now",
+            description = "Archives completed todos last updated before the given time, or before the configured"
+                    + " minimum age when omitted, and returns how many were moved. The same job runs on a schedule")
+    @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "Archival run completed")})
+    @PostMapping("/run")
+    public ResponseEntity<TodoBulkResponse> runArchival(
+            @Parameter(description = "Archive completed todos last updated before this time")
+                    @RequestParam(required = false)
+                    OffsetDateTime before) {
+        TodoBulkResponse response = before == null
+                ? todoArchiveService.archiveExpired()
+                : todoArchiveService.archiveCompletedBefore(before);
+        return ResponseEntity.ok(response);
+    }
+}
@@ -1,8 +1,20 @@
 package com.kaizenflow.doitnow.todo.controller;
 
+import com.kaizenflow.doitnow.common.dto.CursorPage;
+import com.kaizenflow.doitnow.todo.dto.TodoBulkResponse;
+import com.kaizenflow.doitnow.todo.dto.TodoBulkUpdateRequest;
+import com.kaizenflow.doitnow.todo.dto.TodoChangesResponse;
+import com.kaizenflow.doitnow.todo.dto.TodoFilter;
+import com.kaizenflow.doitnow.todo.dto.TodoPatchRequest;
 import com.kaizenflow.doitnow.todo.dto.TodoRequest;
 import com.kaizenflow.doitnow.todo.dto.TodoResponse;
+import com.kaizenflow.doitnow.todo.dto.TodoSyncRequest;
+import com.kaizenflow.doitnow.todo.dto.TodoSyncResponse;
+import com.kaizenflow.doitnow.todo.service.TodoETags;
+import com.kaizenflow.doitnow.todo.service.TodoEventBroadcaster;
+import com.kaizenflow.doitnow.todo.service.TodoExportService;
 import com.kaizenflow.doitnow.todo.service.TodoService;
+import com.kaizenflow.doitnow.todo.service.TodoSyncService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -12,9 +24,15 @@ import jakarta.validation.Valid;
 import java.time.OffsetDateTime;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
+import org.springdoc.core.annotations.ParameterObject;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/api/todos")
@@ -24,37 +42,120 @@ import org.springframework.web.bind.annotation.*;
 public class TodoController {
 
     private final TodoService todoService;
+    private final TodoSyncService todoSyncService;
+    private final TodoExportService todoExportService;
+    private final TodoEventBroadcaster todoEventBroadcaster;
 
     @Operation(
             summary = "Get all todos",
-            description = "Retrieves all todos, with optional filtering by completion status or priority")
-    @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "Successfully retrieved todos")})
+            description = "Retrieves todos one page at a time, most recently updated first. Filters on completion"
+                    + " status, priority, assignee, owning user and due date range can be combined and are applied"
+                    + " together. Pass the returned nextCursor to fetch the following page. Send the page's ETag"
+                    + " back in If-None-Match to get 304 Not Modified while the page is unchanged")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved todos"),
+        @ApiResponse(responseCode = "304", description = "Page unchanged since the given ETag"),
+        @ApiResponse(responseCode = "400", description = "Invalid filter or cursor")
+    })
     @GetMapping
-    public ResponseEntity<List<TodoResponse>> getAllTodos(
-            @Parameter(description = "Filter by completion status") @RequestParam(required = false) Boolean completed,
-            @Parameter(description = "Filter by priority (low, medium, high)") @RequestParam(required = false)
-                    String priority) {
-
-        if (completed != null) {
-            return ResponseEntity.ok(todoService.getTodosByCompleted(completed));
+    public ResponseEntity<CursorPage<TodoResponse>> getAllTodos(
+            @ParameterObject @Valid TodoFilter filter,
+            @Parameter(description = "Cursor returned by the previous page") @RequestParam(required = false)
+                    String cursor,
+            @Parameter(description = "Maximum number of todos per page (capped at 200)")
+                    @RequestParam(defaultValue = "50")
+                    int limit,
+            WebRequest webRequest) {
+        // Only conditional requests pay for the revision query; it spares loading and serializing an unchanged page
+        if (webRequest.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                && webRequest.checkNotModified(todoService.getTodosETag(filter, cursor, limit))) {
+            return null;
         }
+        CursorPage<TodoResponse> page = todoService.getTodos(filter, cursor, limit);
+        return ResponseEntity.ok().eTag(TodoETags.forPage(page)).body(page);
+    }
 
-        if (priority != null) {
-            return ResponseEntity.ok(todoService.getTodosByPriority(priority));
-        }
+    @Operation(
+            summary = "Search todos",
+            description = "Full-text search over todo titles and descriptions, best match first. Supports quoted"
+                    + " phrases, \"or\" and -term exclusions. Pass the returned nextCursor to fetch the following"
+                    + " page")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully searched todos"),
+        @ApiResponse(responseCode = "400", description = "Blank or overlong query, or invalid cursor")
+    })
+    @GetMapping("/search")
+    public ResponseEntity<CursorPage<TodoResponse>> searchTodos(
+            @Parameter(description = "Search terms", required = true) @RequestParam String q,
+            @Parameter(description = "Cursor returned by the previous page") @RequestParam(required = false)
+                    String cursor,
+            @Parameter(description = "Maximum number of todos per page (capped at 200)")
+                    @RequestParam(defaultValue = "50")
+                    int limit) {
+        return ResponseEntity.ok(todoService.searchTodos(q, cursor, limit));
+    }
 
-        return ResponseEntity.ok(todoService.getAllTodos());
+    @Operation(
+            summary = "Get changes since a watermark",
+            description = "Retrieves todos created, updated or deleted since the given watermark. Omit the watermark"
+                    + " for a full initial sync, then pass back the returned watermark on the next call")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved changes"),
+        @ApiResponse(responseCode = "400", description = "Invalid watermark")
+    })
+    @GetMapping("/changes")
+    public ResponseEntity<TodoChangesResponse> getChanges(
+            @Parameter(description = "Watermark returned by the previous call") @RequestParam(required = false)
+                    String since,
+            @Parameter(description = "Maximum number of changes and deletions per call (capped at 1000)")
+                    @RequestParam(defaultValue = "500")
+                    int limit) {
+        return ResponseEntity.ok(todoService.getChangesSince(since, limit));
+    }
+
+    @Operation(
+            summary = "Stream todo changes",
+            description = "Server-Sent Events stream of committed todo changes, one \"todo\" event per created,"
+                    + " updated, toggled or deleted todo. Reconnect with Last-Event-ID to receive the events missed"
+                    + " in between; a RESYNC event means the gap cannot be replayed and the client should catch up"
+                    + " through GET /api/todos/changes. Clients that fall too far behind are disconnected")
+    @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "Event stream opened")})
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamEvents(
+            @Parameter(description = "Id of the last event received before reconnecting")
+                    @RequestHeader(value = "Last-Event-ID", required = false)
+                    String lastEventId) {
+        return todoEventBroadcaster.subscribe(lastEventId);
     }
 
-    @Operation(summary = "Get todo by ID", description = "Retrieves a specific todo by its entity ID")
+    @Operation(
+            summary = "Export all todos",
+            description = "Streams every todo as newline-delimited JSON, one todo per line, without buffering the"
+                    + " whole export")
+    @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "Export streamed successfully")})
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportTodos() {
+        StreamingResponseBody body = todoExportService::exportNdjson;
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"todos.ndjson\"")
+                .body(body);
+    }
+
+    @Operation(
+            summary = "Get todo by ID",
+            description = "Retrieves a specific todo by its entity ID. The ETag is the todo's version; send it in"
+                    + " If-None-Match to get 304 Not Modified while the todo is unchanged")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Todo found"),
+        @ApiResponse(responseCode = "304", description = "Todo unchanged since the given ETag"),
         @ApiResponse(responseCode = "404", description = "Todo not found")
     })
     @GetMapping("/{id}")
     public ResponseEntity<TodoResponse> getTodoById(
             @Parameter(description = "Todo entity ID", required = true) @PathVariable Long id) {
-        return ResponseEntity.ok(todoService.getTodoById(id));
+        TodoResponse todo = todoService.getTodoById(id);
+        return ResponseEntity.ok().eTag(TodoETags.forTodo(todo)).body(todo);
     }
 
     @Operation(
@@ -76,21 +177,91 @@ public class TodoController {
     @PostMapping
     public ResponseEntity<TodoResponse> createTodo(@Valid @RequestBody TodoRequest request) {
         TodoResponse response = todoService.createTodo(request);
-        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        return ResponseEntity.status(HttpStatus.CREATED).eTag(TodoETags.forTodo(response)).body(response);
     }
 
-    @Operation(summary = "Update todo", description = "Updates an existing todo item")
+    @Operation(
+            summary = "Sync queued changes",
+            description = "Applies an ordered batch of create, update, delete and toggle operations keyed by entity"
+                    + " ID in a single transaction and reports the outcome of each operation")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Batch applied; see per-operation results"),
+        @ApiResponse(responseCode = "400", description = "Invalid batch")
+    })
+    @PostMapping("/sync")
+    public ResponseEntity<TodoSyncResponse> syncTodos(@Valid @RequestBody TodoSyncRequest request) {
+        return ResponseEntity.ok(todoSyncService.applyBatch(request));
+    }
+
+    @Operation(
+            summary = "Update todos in bulk",
+            description = "Sets completion status, priority and/or assignee on every todo matching the filter in a"
+                    + " single statement and returns the number of todos changed. The filter accepts the listing"
+                    + " criteria plus a list of entity IDs, and must set at least one of them")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Todos updated; see affected count"),
+        @ApiResponse(responseCode = "400", description = "Invalid input, empty filter or no changes")
+    })
+    @PostMapping("/bulk-update")
+    public ResponseEntity<TodoBulkResponse> updateTodos(@Valid @RequestBody TodoBulkUpdateRequest request) {
+        return ResponseEntity.ok(todoService.updateTodos(request));
+    }
+
+    @Operation(
+            summary = "Delete todos in bulk",
+            description = "Deletes every todo matching the filter and returns the number of todos deleted. The"
+                    + " filter accepts the listing criteria plus a list of entity IDs, and must set at least one of"
+                    + " them")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Todos deleted; see affected count"),
+        @ApiResponse(responseCode = "400", description = "Invalid input or empty filter")
+    })
+    @PostMapping("/bulk-delete")
+    public ResponseEntity<TodoBulkResponse> deleteTodos(@Valid @RequestBody TodoFilter filter) {
+        return ResponseEntity.ok(todoService.deleteTodos(filter));
+    }
+
+    @Operation(
+            summary = "Update todo",
+            description = "Updates an existing todo item. With If-Match, the update is rejected if the todo has"
+                    + " changed since that ETag")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Todo updated successfully"),
         @ApiResponse(responseCode = "404", description = "Todo not found"),
-        @ApiResponse(responseCode = "400", description = "Invalid input")
+        @ApiResponse(responseCode = "400", description = "Invalid input"),
+        @ApiResponse(responseCode = "409", description = "Todo was modified concurrently"),
+        @ApiResponse(responseCode = "412", description = "Todo has changed since the If-Match ETag")
     })
     @PutMapping("/{id}")
     public ResponseEntity<TodoResponse> updateTodo(
             @Parameter(description = "Todo entity ID", required = true) @PathVariable Long id,
+            @Parameter(description = "ETag the update is based on")
+                    @RequestHeader(value = HttpHeaders.IF_MATCH, required = false)
+                    String ifMatch,
             @Valid @RequestBody TodoRequest request) {
-        TodoResponse response = todoService.updateTodo(id, request);
-        return ResponseEntity.ok(response);
+        TodoResponse response = todoService.updateTodo(id, request, TodoETags.expectedVersion(ifMatch));
+        return ResponseEntity.ok().eTag(TodoETags.forTodo(response)).body(response);
+    }
+
+    @Operation(
+            summary = "Partially update todo",
+            description = "Updates only the fields present in the request body and leaves the others unchanged."
+                    + " With If-Match, the update is rejected if the todo has changed since that ETag")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Todo updated successfully"),
+        @ApiResponse(responseCode = "404", description = "Todo not found"),
+        @ApiResponse(responseCode = "400", description = "Invalid input"),
+        @ApiResponse(responseCode = "412", description = "Todo has changed since the If-Match ETag")
+    })
+    @PatchMapping("/{id}")
+    public ResponseEntity<TodoResponse> patchTodo(
+            @Parameter(description = "Todo entity ID", required = true) @PathVariable Long id,
+            @Parameter(description = "ETag the update is based on")
+                    @RequestHeader(value = HttpHeaders.IF_MATCH, required = false)
+                    String ifMatch,
+            @Valid @RequestBody TodoPatchRequest request) {
+        TodoResponse response = todoService.patchTodo(id, request, TodoETags.expectedVersion(ifMatch));
+        return ResponseEntity.ok().eTag(TodoETags.forTodo(response)).body(response);
     }
 
     @Operation(
@@ -104,7 +275,7 @@ public class TodoController {
     public ResponseEntity<TodoResponse> toggleTodoCompleted(
             @Parameter(description = "Todo entity ID", required = true) @PathVariable Long id) {
         TodoResponse response = todoService.toggleTodoCompleted(id);
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok().eTag(TodoETags.forTodo(response)).body(response);
     }
 
     @Operation(summary = "Delete todo", description = "Deletes a todo item")
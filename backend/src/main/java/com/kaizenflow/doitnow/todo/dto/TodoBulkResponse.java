@@ -0,0 +1,12 @@
+package com.kaizenflow.doitnow.todo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TodoBulkResponse {
+    private long affected;
+}
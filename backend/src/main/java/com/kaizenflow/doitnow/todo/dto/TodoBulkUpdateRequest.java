@@ -0,0 +1,31 @@
+package com.kaizenflow.doitnow.todo.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+/**
+ * Changes to apply to every todo matching {@link #filter}. Fields left null are not changed.
+ */
+@Data
+public class TodoBulkUpdateRequest {
+
+    @NotNull(message = "Filter is required")
+    @Valid
+    private TodoFilter filter;
+
+    private Boolean completed;
+
+    @Pattern(regexp = "low|medium|high", message = "Priority must be low, medium, or high")
+    private String priority;
+
+    @Size(max = 255, message = "Assigned to must not exceed 255 characters")
+    private String assignedTo;
+
+    /** Whether the request changes anything at all. */
+    public boolean hasChanges() {
+        return completed != null || priority != null || assignedTo != null;
+    }
+}
@@ -0,0 +1,52 @@
+package com.kaizenflow.doitnow.todo.dto;
+
+import com.kaizenflow.doitnow.common.exception.InvalidRequestException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position in the changes feed: how far a client has read the todos and the tombstones, each as a keyset position
+ * over {@code (change_seq, id)}.
+ *
+ * <p>Encoded as URL-safe Base64 so clients treat it as an opaque token.
+ */
+public record TodoChangeWatermark(Position todos, Position tombstones) {
+
+    private static final String SEPARATOR = "|";
+
+    // Watermarks handed out before the feed moved to change numbers joined two timestamp cursors with a dot
+    private static final String LEGACY_SEPARATOR = ".";
+
+    public static final TodoChangeWatermark INITIAL =
+            new TodoChangeWatermark(new Position(0L, 0L), new Position(0L, 0L));
+
+    public record Position(long change, long id) {}
+
+    public String encode() {
+        String raw = todos.change() + SEPARATOR + todos.id() + SEPARATOR + tombstones.change() + SEPARATOR
+                + tombstones.id();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a watermark returned by {@link #encode()}. A legacy timestamp watermark decodes to {@link #INITIAL}, so
+     * those clients read the whole feed once and carry on from a change-number watermark.
+     */
+    public static TodoChangeWatermark decode(String watermark) {
+        if (watermark.contains(LEGACY_SEPARATOR)) {
+            return INITIAL;
+        }
+        String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(watermark), StandardCharsets.UTF_8).split("\\|", -1);
+            if (parts.length == 4) {
+                return new TodoChangeWatermark(
+                        new Position(Long.parseLong(parts[0]), Long.parseLong(parts[1])),
+                        new Position(Long.parseLong(parts[2]), Long.parseLong(parts[3])));
+            }
+        } catch (IllegalArgumentException ex) {
+            // Not Base64, or not numbers; rejected below
+        }
+        throw new InvalidRequestException("Invalid watermark: " + watermark);
+    }
+}
@@ -0,0 +1,20 @@
+package com.kaizenflow.doitnow.todo.dto;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Todos created or updated and todos deleted since a client's watermark.
+ *
+ * <p>Clients apply {@code deleted} before {@code changed}, store {@code watermark} and send it back on their next
+ * call. When {@code hasMore} is set the feed was truncated and should be called again straight away.
+ */
+@Data
+@AllArgsConstructor
+public class TodoChangesResponse {
+    private List<TodoResponse> changed;
+    private List<TodoTombstoneResponse> deleted;
+    private String watermark;
+    private boolean hasMore;
+}
@@ -0,0 +1,16 @@
+package com.kaizenflow.doitnow.todo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** How many todos a user owns, by state. Overdue todos are open todos whose due date has passed. */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TodoCountsResponse {
+    private long total;
+    private long completed;
+    private long open;
+    private long overdue;
+}
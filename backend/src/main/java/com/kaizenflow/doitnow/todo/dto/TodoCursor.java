@@ -0,0 +1,35 @@
+package com.kaizenflow.doitnow.todo.dto;
+
+import com.kaizenflow.doitnow.common.exception.InvalidRequestException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+
+/**
+ * Keyset position over {@code (updated_at, id)}, the sort order used by the paginated todo listings.
+ *
+ * <p>Encoded as URL-safe Base64 so clients treat it as an opaque token.
+ */
+public record TodoCursor(OffsetDateTime updatedAt, Long id) {
+
+    private static final String SEPARATOR = "|";
+
+    public String encode() {
+        String raw = updatedAt.toInstant() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static TodoCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            Instant updatedAt = Instant.parse(raw.substring(0, separator));
+            Long id = Long.valueOf(raw.substring(separator + 1));
+            return new TodoCursor(OffsetDateTime.ofInstant(updatedAt, ZoneOffset.UTC), id);
+        } catch (RuntimeException ex) {
+            throw new InvalidRequestException("Invalid cursor: " + cursor);
+        }
+    }
+}
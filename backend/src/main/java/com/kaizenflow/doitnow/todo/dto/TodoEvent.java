@@ -0,0 +1,35 @@
+package com.kaizenflow.doitnow.todo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A committed change to a todo, as pushed to event stream subscribers. {@code todo} is the todo's state after a
+ * create or update and is null for deletions; both {@code entityId} and {@code todo} are null for
+ * {@link TodoEventType#RESYNC}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TodoEvent {
+    private TodoEventType type;
+    private Long entityId;
+    private TodoResponse todo;
+
+    public static TodoEvent created(TodoResponse todo) {
+        return new TodoEvent(TodoEventType.CREATED, todo.getEntityId(), todo);
+    }
+
+    public static TodoEvent updated(TodoResponse todo) {
+        return new TodoEvent(TodoEventType.UPDATED, todo.getEntityId(), todo);
+    }
+
+    public static TodoEvent deleted(Long entityId) {
+        return new TodoEvent(TodoEventType.DELETED, entityId, null);
+    }
+
+    public static TodoEvent resync() {
+        return new TodoEvent(TodoEventType.RESYNC, null, null);
+    }
+}
@@ -0,0 +1,9 @@
+package com.kaizenflow.doitnow.todo.dto;
+
+public enum TodoEventType {
+    CREATED,
+    UPDATED,
+    DELETED,
+    /** Changes the stream cannot describe one by one; the client should catch up through the changes feed. */
+    RESYNC
+}
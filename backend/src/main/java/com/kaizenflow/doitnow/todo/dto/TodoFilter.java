@@ -0,0 +1,45 @@
+package com.kaizenflow.doitnow.todo.dto;
+
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import java.time.OffsetDateTime;
+import java.util.List;
+import lombok.Data;
+import org.springframework.format.annotation.DateTimeFormat;
+
+/**
+ * Optional criteria for selecting todos to list or to update in bulk. Every criterion that is set must match; unset
+ * criteria are ignored.
+ */
+@Data
+public class TodoFilter {
+
+    @Size(max = 1000, message = "At most 1000 entity IDs can be given")
+    private List<Long> entityIds;
+
+    private Boolean completed;
+
+    @Pattern(regexp = "low|medium|high", message = "Priority must be low, medium, or high")
+    private String priority;
+
+    private String assignedTo;
+
+    private Long userId;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private OffsetDateTime dueFrom;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private OffsetDateTime dueTo;
+
+    /** Whether any criterion is set, i.e. whether the filter matches less than every todo. */
+    public boolean hasCriteria() {
+        return entityIds != null
+                || completed != null
+                || priority != null
+                || assignedTo != null
+                || userId != null
+                || dueFrom != null
+                || dueTo != null;
+    }
+}
@@ -0,0 +1,31 @@
+package com.kaizenflow.doitnow.todo.dto;
+
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import java.time.OffsetDateTime;
+import lombok.Data;
+
+/**
+ * Partial update of a todo. Only the fields that are present (non-null) are written; everything else is left as it
+ * is.
+ */
+@Data
+public class TodoPatchRequest {
+
+    // Absent leaves the title as it is, but a title that is present must not be blank, as in TodoRequest
+    @Pattern(regexp = "(?s).*\\S.*", message = "Title must not be blank")
+    @Size(max = 255, message = "Title must not exceed 255 characters")
+    private String title;
+
+    private String description;
+
+    private Boolean completed;
+
+    @Pattern(regexp = "low|medium|high", message = "Priority must be low, medium, or high")
+    private String priority;
+
+    private OffsetDateTime dueDate;
+
+    @Size(max = 255, message = "Assigned to must not exceed 255 characters")
+    private String assignedTo;
+}
@@ -1,12 +1,21 @@
 package com.kaizenflow.doitnow.todo.dto;
 
 import java.time.OffsetDateTime;
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
+/**
+ * The all-args constructor is used by the projection queries in {@code TodoRepository}, which select straight into
+ * this type; keep its field order in sync with {@code TodoRepository.RESPONSE_PROJECTION}.
+ */
 @Data
+@NoArgsConstructor
+@AllArgsConstructor
 public class TodoResponse {
 
     private Long id;
+    private Long entityId;
     private String title;
     private String description;
     private Boolean completed;
@@ -15,4 +24,5 @@ public class TodoResponse {
     private String assignedTo;
     private OffsetDateTime createdAt;
     private OffsetDateTime updatedAt;
+    private Long version;
 }
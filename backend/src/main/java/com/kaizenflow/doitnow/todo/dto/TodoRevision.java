@@ -0,0 +1,4 @@
+package com.kaizenflow.doitnow.todo.dto;
+
+/** Identity and version of a todo row, enough to tell whether a listing has changed. */
+public record TodoRevision(Long id, Long version) {}
@@ -0,0 +1,37 @@
+package com.kaizenflow.doitnow.todo.dto;
+
+import com.kaizenflow.doitnow.common.exception.InvalidRequestException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Keyset position over {@code (rank, id)}, the sort order of search results.
+ *
+ * <p>Encoded as URL-safe Base64 so clients treat it as an opaque token.
+ */
+public record TodoSearchCursor(float rank, Long id) {
+
+    private static final String SEPARATOR = "|";
+
+    public static TodoSearchCursor of(TodoSearchHit hit) {
+        return new TodoSearchCursor(hit.rank(), hit.id());
+    }
+
+    public String encode() {
+        // Float.toString round-trips exactly, so the rank compares equal to the one the database computes again
+        String raw = Float.toString(rank) + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static TodoSearchCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            float rank = Float.parseFloat(raw.substring(0, separator));
+            Long id = Long.valueOf(raw.substring(separator + 1));
+            return new TodoSearchCursor(rank, id);
+        } catch (RuntimeException ex) {
+            throw new InvalidRequestException("Invalid cursor: " + cursor);
+        }
+    }
+}
@@ -0,0 +1,4 @@
+package com.kaizenflow.doitnow.todo.dto;
+
+/** A todo matched by a search, with its relevance to the search terms; higher ranks are better matches. */
+public record TodoSearchHit(Long id, float rank) {}
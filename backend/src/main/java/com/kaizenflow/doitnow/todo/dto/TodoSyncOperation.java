@@ -0,0 +1,17 @@
+package com.kaizenflow.doitnow.todo.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+@Data
+public class TodoSyncOperation {
+
+    @NotNull(message = "Operation type is required")
+    private TodoSyncOperationType type;
+
+    @NotNull(message = "Entity ID is required")
+    private Long entityId;
+
+    /** Required for CREATE and UPDATE, ignored otherwise. */
+    private TodoRequest payload;
+}
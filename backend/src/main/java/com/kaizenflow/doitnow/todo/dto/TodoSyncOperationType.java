@@ -0,0 +1,8 @@
+package com.kaizenflow.doitnow.todo.dto;
+
+public enum TodoSyncOperationType {
+    CREATE,
+    UPDATE,
+    DELETE,
+    TOGGLE
+}
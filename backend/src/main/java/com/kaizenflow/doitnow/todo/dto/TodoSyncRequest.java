@@ -0,0 +1,15 @@
+package com.kaizenflow.doitnow.todo.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+import lombok.Data;
+
+@Data
+public class TodoSyncRequest {
+
+    @NotEmpty(message = "At least one operation is required")
+    @Size(max = 1000, message = "A sync batch must not exceed 1000 operations")
+    private List<@Valid TodoSyncOperation> operations;
+}
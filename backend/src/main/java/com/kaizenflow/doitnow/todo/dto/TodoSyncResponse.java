@@ -0,0 +1,13 @@
+package com.kaizenflow.doitnow.todo.dto;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class TodoSyncResponse {
+    private int applied;
+    private int rejected;
+    private List<TodoSyncResult> results;
+}
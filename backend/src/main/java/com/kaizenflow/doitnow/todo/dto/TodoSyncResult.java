@@ -0,0 +1,15 @@
+package com.kaizenflow.doitnow.todo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class TodoSyncResult {
+    private int index;
+    private Long entityId;
+    private TodoSyncOperationType type;
+    private TodoSyncStatus status;
+    private TodoResponse todo;
+    private String message;
+}
@@ -0,0 +1,9 @@
+package com.kaizenflow.doitnow.todo.dto;
+
+public enum TodoSyncStatus {
+    APPLIED,
+    NOT_FOUND,
+    // The todo was archived; it is gone from the changes feed and is only changed again once restored
+    ARCHIVED,
+    INVALID
+}
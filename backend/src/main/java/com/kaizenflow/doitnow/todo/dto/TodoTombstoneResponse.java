@@ -0,0 +1,12 @@
+package com.kaizenflow.doitnow.todo.dto;
+
+import java.time.OffsetDateTime;
+import lombok.Data;
+
+@Data
+public class TodoTombstoneResponse {
+
+    private Long id;
+    private Long entityId;
+    private OffsetDateTime deletedAt;
+}
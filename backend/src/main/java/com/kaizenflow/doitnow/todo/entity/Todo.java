@@ -1,7 +1,6 @@
 package com.kaizenflow.doitnow.todo.entity;
 
 import com.kaizenflow.doitnow.user.entity.User;
-
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
@@ -10,21 +9,36 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.NotNull;
 import java.time.OffsetDateTime;
 import lombok.Data;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
 import org.hibernate.annotations.UpdateTimestamp;
 
 @Entity
 @Table(name = "todos")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Todo.CACHE_REGION)
+@NaturalIdCache(region = Todo.NATURAL_ID_CACHE_REGION)
 @Data
 public class Todo {
 
+    public static final String CACHE_REGION = "todos";
+    public static final String NATURAL_ID_CACHE_REGION = "todos-by-entity-id";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "todos_id_seq")
+    @SequenceGenerator(name = "todos_id_seq", sequenceName = "todos_id_seq", allocationSize = 50)
     private Long id;
 
     @NaturalId
@@ -57,7 +71,23 @@ public class Todo {
     @Column(name = "updated_at", nullable = false)
     private OffsetDateTime updatedAt;
 
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
+    // Position in the changes feed, stamped by TodoChangeSequence as the writing transaction commits
+    @Column(name = "change_seq")
+    private Long changeSeq;
+
+    // Deleting a user deletes its todos through ON DELETE CASCADE on fk_todos_user_id, never through Hibernate
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
+    @OnDelete(action = OnDeleteAction.CASCADE)
     private User user;
+
+    @PrePersist
+    @PreUpdate
+    void clearChangeSeq() {
+        changeSeq = null;
+    }
 }
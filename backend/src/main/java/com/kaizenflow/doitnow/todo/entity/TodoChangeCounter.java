@@ -0,0 +1,25 @@
+package com.kaizenflow.doitnow.todo.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+/**
+ * The single row holding the last change number handed out to the changes feed. It is only read and written by
+ * {@link com.kaizenflow.doitnow.todo.repository.TodoChangeSequence}; mapped so the schema carries it.
+ */
+@Entity
+@Table(name = "todo_change_counter")
+@Data
+public class TodoChangeCounter {
+
+    public static final int ID = 1;
+
+    @Id
+    private Integer id;
+
+    @Column(name = "last_change", nullable = false)
+    private Long lastChange;
+}
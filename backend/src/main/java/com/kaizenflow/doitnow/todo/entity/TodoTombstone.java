@@ -0,0 +1,51 @@
+package com.kaizenflow.doitnow.todo.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import java.time.OffsetDateTime;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+/**
+ * Record of a deleted todo, kept so clients syncing through the changes feed learn about deletions.
+ */
+@Entity
+@Table(name = "todo_tombstones")
+@Data
+@NoArgsConstructor
+public class TodoTombstone {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "todo_tombstones_id_seq")
+    @SequenceGenerator(name = "todo_tombstones_id_seq", sequenceName = "todo_tombstones_id_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "todo_id", nullable = false)
+    private Long todoId;
+
+    @Column(name = "entity_id", nullable = false)
+    private Long entityId;
+
+    @CreationTimestamp
+    @Column(name = "deleted_at", nullable = false, updatable = false)
+    private OffsetDateTime deletedAt;
+
+    // Position in the changes feed, stamped by TodoChangeSequence as the deleting transaction commits
+    @Column(name = "change_seq")
+    private Long changeSeq;
+
+    public TodoTombstone(Todo todo) {
+        this(todo.getId(), todo.getEntityId());
+    }
+
+    public TodoTombstone(Long todoId, Long entityId) {
+        this.todoId = todoId;
+        this.entityId = entityId;
+    }
+}
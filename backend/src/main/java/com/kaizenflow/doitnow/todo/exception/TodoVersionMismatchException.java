@@ -0,0 +1,7 @@
+package com.kaizenflow.doitnow.todo.exception;
+
+public class TodoVersionMismatchException extends RuntimeException {
+    public TodoVersionMismatchException(Long id, Long expectedVersion) {
+        super("Todo " + id + " has changed since version " + expectedVersion);
+    }
+}
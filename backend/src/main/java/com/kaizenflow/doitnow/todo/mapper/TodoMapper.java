@@ -2,7 +2,10 @@ package com.kaizenflow.doitnow.todo.mapper;
 
 import com.kaizenflow.doitnow.todo.dto.TodoRequest;
 import com.kaizenflow.doitnow.todo.dto.TodoResponse;
+import com.kaizenflow.doitnow.todo.dto.TodoTombstoneResponse;
+import com.kaizenflow.doitnow.todo.entity.ArchivedTodo;
 import com.kaizenflow.doitnow.todo.entity.Todo;
+import com.kaizenflow.doitnow.todo.entity.TodoTombstone;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.MappingTarget;
@@ -12,14 +15,22 @@ public interface TodoMapper {
 
     TodoResponse toResponse(Todo todo);
 
+    TodoResponse toResponse(ArchivedTodo archivedTodo);
+
+    TodoTombstoneResponse toTombstoneResponse(TodoTombstone tombstone);
+
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "createdAt", ignore = true)
     @Mapping(target = "updatedAt", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "changeSeq", ignore = true)
     Todo toEntity(TodoRequest request);
 
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "entityId", ignore = true)
     @Mapping(target = "createdAt", ignore = true)
     @Mapping(target = "updatedAt", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "changeSeq", ignore = true)
     void updateEntityFromRequest(TodoRequest request, @MappingTarget Todo todo);
 }
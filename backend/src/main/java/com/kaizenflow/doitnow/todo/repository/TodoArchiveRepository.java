@@ -0,0 +1,45 @@
+package com.kaizenflow.doitnow.todo.repository;
+
+import com.kaizenflow.doitnow.todo.dto.TodoResponse;
+import com.kaizenflow.doitnow.todo.entity.ArchivedTodo;
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Reads the archive and, through {@link TodoArchiveWriteRepository}, moves todos between {@code todos} and
+ * {@code todos_archive}. A todo keeps its id in both directions; ids come from the todos sequence only, so it is never
+ * reused while archived.
+ */
+@Repository
+public interface TodoArchiveRepository extends JpaRepository<ArchivedTodo, Long>, TodoArchiveWriteRepository {
+
+    String RESPONSE_PROJECTION = "new com.kaizenflow.doitnow.todo.dto.TodoResponse(a.id, a.entityId, a.title,"
+            + " a.description, a.completed, a.priority, a.dueDate, a.assignedTo, a.createdAt, a.updatedAt, a.version)";
+
+    /** Whether a todo with this entity id is archived; such an entity id cannot be used again until restored. */
+    boolean existsByEntityId(Long entityId);
+
+    @Query("SELECT DISTINCT a.entityId FROM ArchivedTodo a WHERE a.entityId IN :entityIds")
+    Set<Long> findArchivedEntityIds(@Param("entityIds") Collection<Long> entityIds);
+
+    /** The most recently archived todo with this entity id; a restored todo can be archived again later. */
+    Optional<ArchivedTodo> findFirstByEntityIdOrderByArchivedAtDesc(Long entityId);
+
+    @Query("SELECT " + RESPONSE_PROJECTION + " FROM ArchivedTodo a ORDER BY a.updatedAt DESC, a.id DESC")
+    List<TodoResponse> findFirstPage(Limit limit);
+
+    @Query("SELECT " + RESPONSE_PROJECTION + """
+             FROM ArchivedTodo a
+            WHERE a.updatedAt <= :updatedAt AND (a.updatedAt < :updatedAt OR a.id < :id)
+            ORDER BY a.updatedAt DESC, a.id DESC""")
+    List<TodoResponse> findPageAfter(
+            @Param("updatedAt") OffsetDateTime updatedAt, @Param("id") Long id, Limit limit);
+}
@@ -0,0 +1,39 @@
+package com.kaizenflow.doitnow.todo.repository;
+
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * The set-based statements that move todos between {@code todos} and {@code todos_archive}. They run over JDBC
+ * rather than as native queries, which Hibernate cannot tell the affected entities of and answers by dropping every
+ * second-level cache region; callers evict the moved todos through {@link TodoCacheEviction} instead.
+ */
+public interface TodoArchiveWriteRepository {
+
+    /**
+     * Locks up to {@code limit} completed todos last changed before {@code cutoff}. The row locks keep them from
+     * being changed until they have been copied and deleted in the same transaction.
+     *
+     * @return the entity IDs of the locked todos by their ids
+     */
+    Map<Long, Long> lockArchivable(OffsetDateTime cutoff, int limit);
+
+    int copyFromTodos(Collection<Long> ids);
+
+    /**
+     * Deletes the todos with these ids from {@code todos}, leaving a tombstone for each so clients drop their copies
+     * through the changes feed. {@code change_seq} is left NULL for {@link TodoChangeSequence} to stamp.
+     *
+     * @return the number of todos deleted
+     */
+    int deleteFromTodos(Collection<Long> ids);
+
+    /**
+     * Puts an archived todo back into {@code todos} as a change: its version is bumped and {@code updated_at} set to
+     * now, so clients see it again through the changes feed.
+     */
+    int copyToTodos(Long id);
+
+    int deleteArchivedById(Long id);
+}
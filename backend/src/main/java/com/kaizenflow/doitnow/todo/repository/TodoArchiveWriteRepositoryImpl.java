@@ -0,0 +1,76 @@
+package com.kaizenflow.doitnow.todo.repository;
+
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+@RequiredArgsConstructor
+public class TodoArchiveWriteRepositoryImpl implements TodoArchiveWriteRepository {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Override
+    public Map<Long, Long> lockArchivable(OffsetDateTime cutoff, int limit) {
+        Map<Long, Long> entityIdsById = new LinkedHashMap<>();
+        jdbcTemplate.query(
+                """
+                SELECT id, entity_id FROM todos
+                WHERE completed = TRUE AND updated_at < :cutoff
+                LIMIT :limit
+                FOR UPDATE""",
+                Map.of("cutoff", cutoff, "limit", limit),
+                resultSet -> {
+                    entityIdsById.put(resultSet.getLong("id"), resultSet.getLong("entity_id"));
+                });
+        return entityIdsById;
+    }
+
+    @Override
+    public int copyFromTodos(Collection<Long> ids) {
+        return jdbcTemplate.update(
+                """
+                INSERT INTO todos_archive (id, entity_id, title, description, completed, priority, due_date,
+                                           assigned_to, user_id, created_at, updated_at, version, archived_at)
+                SELECT id, entity_id, title, description, completed, priority, due_date, assigned_to, user_id,
+                       created_at, updated_at, version, CURRENT_TIMESTAMP
+                FROM todos
+                WHERE id IN (:ids)""",
+                Map.of("ids", ids));
+    }
+
+    // Tombstone ids come straight from the sequence, which cannot clash with the blocks the pooled optimizer hands out.
+    // Each row uses up a whole block of the sequence, which is BIGINT for that reason (V16)
+    @Override
+    public int deleteFromTodos(Collection<Long> ids) {
+        jdbcTemplate.update(
+                """
+                INSERT INTO todo_tombstones (id, todo_id, entity_id, deleted_at)
+                SELECT nextval('todo_tombstones_id_seq'), id, entity_id, CURRENT_TIMESTAMP
+                FROM todos
+                WHERE id IN (:ids)""",
+                Map.of("ids", ids));
+        return jdbcTemplate.update("DELETE FROM todos WHERE id IN (:ids)", Map.of("ids", ids));
+    }
+
+    // Plain SQL bypasses Todo's @PrePersist, so change_seq is left NULL here for the stamping
+    @Override
+    public int copyToTodos(Long id) {
+        return jdbcTemplate.update(
+                """
+                INSERT INTO todos (id, entity_id, title, description, completed, priority, due_date,
+                                   assigned_to, user_id, created_at, updated_at, version)
+                SELECT id, entity_id, title, description, completed, priority, due_date,
+                       assigned_to, user_id, created_at, CURRENT_TIMESTAMP, version + 1
+                FROM todos_archive
+                WHERE id = :id""",
+                Map.of("id", id));
+    }
+
+    @Override
+    public int deleteArchivedById(Long id) {
+        return jdbcTemplate.update("DELETE FROM todos_archive WHERE id = :id", Map.of("id", id));
+    }
+}
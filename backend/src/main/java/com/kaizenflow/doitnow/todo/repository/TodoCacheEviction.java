@@ -0,0 +1,82 @@
+package com.kaizenflow.doitnow.todo.repository;
+
+import com.kaizenflow.doitnow.todo.entity.Todo;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import java.util.HashMap;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Cache;
+import org.hibernate.cache.spi.access.NaturalIdDataAccess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Drops single todos from the second-level cache after writes Hibernate did not see, such as those in
+ * {@link TodoWriteRepository}. Eviction waits for the commit: evicting earlier would let a concurrent reader cache the
+ * old row again before the write becomes visible.
+ */
+@Component
+@RequiredArgsConstructor
+public class TodoCacheEviction {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /** Evicts the cached copy of the todo with this id once the current transaction has committed. */
+    public void evictOnCommit(Long id) {
+        Cache cache = entityManagerFactory.getCache().unwrap(Cache.class);
+        afterCommit(() -> cache.evictEntityData(Todo.class, id));
+    }
+
+    /**
+     * Evicts a deleted todo once the current transaction has committed, together with its entity ID's natural-id
+     * entry, which would otherwise keep resolving a recreated todo with the same entity ID to the deleted row.
+     */
+    public void evictDeletedOnCommit(Long id, Long entityId) {
+        evictDeletedOnCommit(Map.of(id, entityId));
+    }
+
+    /** Like {@link #evictDeletedOnCommit(Long, Long)}, for the todos with these entity IDs by id. */
+    public void evictDeletedOnCommit(Map<Long, Long> entityIdsById) {
+        Cache cache = entityManagerFactory.getCache().unwrap(Cache.class);
+        EntityPersister persister = entityManagerFactory
+                .unwrap(SessionFactoryImplementor.class)
+                .getMappingMetamodel()
+                .getEntityDescriptor(Todo.class);
+        NaturalIdDataAccess naturalIds = persister.getNaturalIdCacheAccessStrategy();
+        SharedSessionContractImplementor session = entityManager.unwrap(SharedSessionContractImplementor.class);
+        Map<Long, Object> naturalIdKeysById = new HashMap<>();
+        entityIdsById.forEach((id, entityId) ->
+                naturalIdKeysById.put(id, naturalIds.generateCacheKey(entityId, persister, session)));
+        afterCommit(() -> naturalIdKeysById.forEach((id, naturalIdKey) -> {
+            cache.evictEntityData(Todo.class, id);
+            naturalIds.evict(naturalIdKey);
+        }));
+    }
+
+    /** Evicts every cached todo and natural-id entry once the current transaction has committed. */
+    public void evictAllOnCommit() {
+        Cache cache = entityManagerFactory.getCache().unwrap(Cache.class);
+        afterCommit(() -> {
+            cache.evictEntityData(Todo.class);
+            cache.evictNaturalIdData(Todo.class);
+        });
+    }
+
+    private static void afterCommit(Runnable eviction) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                eviction.run();
+            }
+        });
+    }
+}
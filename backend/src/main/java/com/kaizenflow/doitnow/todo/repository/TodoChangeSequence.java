@@ -0,0 +1,74 @@
+package com.kaizenflow.doitnow.todo.repository;
+
+import com.kaizenflow.doitnow.todo.entity.TodoChangeCounter;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Hands out the change numbers the changes feed pages by.
+ *
+ * <p>Writes leave {@code change_seq} at NULL on the todos and tombstones they touch. Just before the transaction
+ * commits, it takes the next number from the counter row and stamps it on all of its unstamped rows; other
+ * transactions' rows are invisible to it until they commit, and by then they are stamped. The counter row stays
+ * locked until the commit, so numbers are handed out in commit order: once a reader sees a number, every smaller one
+ * has been committed and is visible too, and a watermark can never be overtaken by a slow transaction. The lock is
+ * held only for the stamping and the commit itself.
+ *
+ * <p>The stamping runs on the transaction's JDBC connection through {@link JdbcTemplate}, so Hibernate does not
+ * treat it as a bulk statement and the second-level cache keeps its entries.
+ */
+@Repository
+@RequiredArgsConstructor
+public class TodoChangeSequence {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Makes the current transaction stamp the todos and tombstones it wrote when it commits. Every transaction that
+     * writes either must call this; calling it more than once is harmless.
+     */
+    public void stampOnCommit() {
+        if (TransactionSynchronizationManager.getSynchronizations().stream()
+                .noneMatch(StampBeforeCommit.class::isInstance)) {
+            TransactionSynchronizationManager.registerSynchronization(new StampBeforeCommit());
+        }
+    }
+
+    private void stamp() {
+        // Hibernate would otherwise only flush the transaction's entity writes as part of the commit, after this
+        entityManager.flush();
+        long change = nextChange();
+        jdbcTemplate.update("UPDATE todos SET change_seq = ? WHERE change_seq IS NULL", change);
+        jdbcTemplate.update("UPDATE todo_tombstones SET change_seq = ? WHERE change_seq IS NULL", change);
+    }
+
+    // The UPDATE takes the row lock that orders the commits
+    private long nextChange() {
+        String increment = "UPDATE todo_change_counter SET last_change = last_change + 1 WHERE id = ?";
+        if (jdbcTemplate.update(increment, TodoChangeCounter.ID) == 0) {
+            // Only a schema created without the migrations (the H2 test database) starts without the row
+            jdbcTemplate.update(
+                    "INSERT INTO todo_change_counter (id, last_change) VALUES (?, 0) ON CONFLICT DO NOTHING",
+                    TodoChangeCounter.ID);
+            jdbcTemplate.update(increment, TodoChangeCounter.ID);
+        }
+        return jdbcTemplate.queryForObject(
+                "SELECT last_change FROM todo_change_counter WHERE id = ?", Long.class, TodoChangeCounter.ID);
+    }
+
+    private class StampBeforeCommit implements TransactionSynchronization {
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            stamp();
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.kaizenflow.doitnow.todo.repository;
+
+import com.kaizenflow.doitnow.todo.entity.Todo;
+import java.util.Optional;
+
+public interface TodoNaturalIdRepository {
+
+    /**
+     * Loads a todo by its entity ID through Hibernate's natural-id API, which consults the natural-id and entity
+     * caches before falling back to SQL. Derived queries such as {@code findByEntityId} always hit the database.
+     */
+    Optional<Todo> findByNaturalId(Long entityId);
+}
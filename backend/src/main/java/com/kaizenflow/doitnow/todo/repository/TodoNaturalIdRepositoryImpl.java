@@ -0,0 +1,18 @@
+package com.kaizenflow.doitnow.todo.repository;
+
+import com.kaizenflow.doitnow.todo.entity.Todo;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.util.Optional;
+import org.hibernate.Session;
+
+public class TodoNaturalIdRepositoryImpl implements TodoNaturalIdRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Optional<Todo> findByNaturalId(Long entityId) {
+        return entityManager.unwrap(Session.class).bySimpleNaturalId(Todo.class).loadOptional(entityId);
+    }
+}
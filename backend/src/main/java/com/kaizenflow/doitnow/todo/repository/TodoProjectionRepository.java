@@ -0,0 +1,27 @@
+package com.kaizenflow.doitnow.todo.repository;
+
+import com.kaizenflow.doitnow.todo.dto.TodoResponse;
+import com.kaizenflow.doitnow.todo.dto.TodoRevision;
+import com.kaizenflow.doitnow.todo.entity.Todo;
+import com.kaizenflow.doitnow.todo.entity.TodoTombstone;
+import java.util.List;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+public interface TodoProjectionRepository {
+
+    /**
+     * Runs a specification query that selects straight into {@link TodoResponse} instead of loading managed
+     * {@link Todo} entities, for read paths that never modify what they read.
+     */
+    List<TodoResponse> findResponses(Specification<Todo> specification, Sort sort, int limit);
+
+    /** Same query as {@link #findResponses}, selecting only the id and version of each row. */
+    List<TodoRevision> findRevisions(Specification<Todo> specification, Sort sort, int limit);
+
+    /**
+     * Unsaved tombstones for up to {@code limit} rows the specification matches, in id order, selected without
+     * loading the rows. The rows are locked until the transaction ends.
+     */
+    List<TodoTombstone> findTombstonesForDelete(Specification<Todo> specification, int limit);
+}
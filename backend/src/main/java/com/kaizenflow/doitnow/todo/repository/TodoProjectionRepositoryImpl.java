@@ -0,0 +1,72 @@
+package com.kaizenflow.doitnow.todo.repository;
+
+import com.kaizenflow.doitnow.todo.dto.TodoResponse;
+import com.kaizenflow.doitnow.todo.dto.TodoRevision;
+import com.kaizenflow.doitnow.todo.entity.Todo;
+import com.kaizenflow.doitnow.todo.entity.TodoTombstone;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import java.util.List;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+public class TodoProjectionRepositoryImpl implements TodoProjectionRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<TodoResponse> findResponses(Specification<Todo> specification, Sort sort, int limit) {
+        // Same column order as TodoRepository.RESPONSE_PROJECTION
+        List<String> attributes = List.of(
+                "id",
+                "entityId",
+                "title",
+                "description",
+                "completed",
+                "priority",
+                "dueDate",
+                "assignedTo",
+                "createdAt",
+                "updatedAt",
+                "version");
+        return select(TodoResponse.class, attributes, specification, sort)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public List<TodoRevision> findRevisions(Specification<Todo> specification, Sort sort, int limit) {
+        return select(TodoRevision.class, List.of("id", "version"), specification, sort)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public List<TodoTombstone> findTombstonesForDelete(Specification<Todo> specification, int limit) {
+        return select(TodoTombstone.class, List.of("id", "entityId"), specification, Sort.by("id"))
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    private <T> TypedQuery<T> select(
+            Class<T> type, List<String> attributes, Specification<Todo> specification, Sort sort) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> query = cb.createQuery(type);
+        Root<Todo> root = query.from(Todo.class);
+
+        query.select(cb.construct(type, attributes.stream().map(root::get).toArray(Selection[]::new)));
+        query.where(specification.toPredicate(root, query, cb));
+        query.orderBy(QueryUtils.toOrders(sort, root, cb));
+
+        return entityManager.createQuery(query);
+    }
+}
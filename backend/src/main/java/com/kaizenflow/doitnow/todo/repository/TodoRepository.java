@@ -1,23 +1,104 @@
 package com.kaizenflow.doitnow.todo.repository;
 
+import com.kaizenflow.doitnow.todo.dto.TodoCountsResponse;
+import com.kaizenflow.doitnow.todo.dto.TodoResponse;
 import com.kaizenflow.doitnow.todo.entity.Todo;
+import jakarta.persistence.QueryHint;
 import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface TodoRepository extends JpaRepository<Todo, Long> {
+public interface TodoRepository
+        extends JpaRepository<Todo, Long>,
+                JpaSpecificationExecutor<Todo>,
+                TodoNaturalIdRepository,
+                TodoProjectionRepository,
+                TodoWriteRepository,
+                TodoSearchRepository {
+
+    int EXPORT_FETCH_SIZE = 500;
+
+    /**
+     * JPQL constructor expression selecting a {@code Todo t} straight into a {@link TodoResponse}. Read-only list
+     * queries use it to skip entity hydration, persistence-context snapshots and the mapper copy.
+     */
+    String RESPONSE_PROJECTION = "new com.kaizenflow.doitnow.todo.dto.TodoResponse(t.id, t.entityId, t.title,"
+            + " t.description, t.completed, t.priority, t.dueDate, t.assignedTo, t.createdAt, t.updatedAt, t.version)";
 
     Optional<Todo> findByEntityId(@Param("entityId") Long entityId);
 
+    @Query("SELECT t.id FROM Todo t WHERE t.entityId = :entityId")
+    Optional<Long> findIdByEntityId(@Param("entityId") Long entityId);
+
+    @Query("SELECT " + RESPONSE_PROJECTION + " FROM Todo t WHERE t.entityId = :entityId")
+    Optional<TodoResponse> findResponseByEntityId(@Param("entityId") Long entityId);
+
+    /** Counts a user's todos by state in a single aggregate query. */
+    @Query("""
+            SELECT new com.kaizenflow.doitnow.todo.dto.TodoCountsResponse(
+                       COUNT(t),
+                       COALESCE(SUM(CASE WHEN t.completed = true THEN 1 ELSE 0 END), 0),
+                       COALESCE(SUM(CASE WHEN t.completed = false THEN 1 ELSE 0 END), 0),
+                       COALESCE(SUM(CASE WHEN t.completed = false AND t.dueDate < :now THEN 1 ELSE 0 END), 0))
+            FROM Todo t
+            WHERE t.user.id = :userId""")
+    TodoCountsResponse countByUserId(@Param("userId") Long userId, @Param("now") OffsetDateTime now);
+
+    @Modifying
+    @Query("DELETE FROM Todo t WHERE t.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Streams every todo in id order for export. Rows are fetched from a server-side cursor in chunks of
+     * {@value #EXPORT_FETCH_SIZE} and loaded read-only, so Hibernate keeps no dirty-checking snapshots, and past the
+     * second-level cache, which a full export would otherwise flush of the todos actually being worked on. Callers
+     * must consume the stream inside a transaction and close it.
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE")
+    })
+    @Query("SELECT t FROM Todo t ORDER BY t.id")
+    Stream<Todo> streamAllForExport();
+
+    List<Todo> findByEntityIdIn(Collection<Long> entityIds);
+
     List<Todo> findByCompleted(Boolean completed);
 
     List<Todo> findByPriority(String priority);
 
     List<Todo> findByDueDateBetween(OffsetDateTime start, OffsetDateTime end);
 
+    @Query("SELECT " + RESPONSE_PROJECTION + " FROM Todo t WHERE t.dueDate BETWEEN :start AND :end")
+    List<TodoResponse> findResponsesByDueDateBetween(
+            @Param("start") OffsetDateTime start, @Param("end") OffsetDateTime end);
+
     List<Todo> findByCompletedOrderByDueDateAsc(Boolean completed);
+
+    // Changes feed: rows changed after a (change_seq, id) watermark in ascending order. Rows whose transaction has
+    // not committed yet are not stamped and stay out until they are; see TodoChangeSequence. Entities rather than the
+    // projection because the caller needs changeSeq for the next watermark. Pages of up to a thousand rows are kept
+    // out of the second-level cache like the export.
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE")
+    })
+    @Query("""
+            SELECT t FROM Todo t
+            WHERE t.changeSeq >= :change AND (t.changeSeq > :change OR t.id > :id)
+            ORDER BY t.changeSeq ASC, t.id ASC""")
+    List<Todo> findChangedAfter(@Param("change") long change, @Param("id") long id, Limit limit);
 }
@@ -0,0 +1,19 @@
+package com.kaizenflow.doitnow.todo.repository;
+
+import com.kaizenflow.doitnow.todo.dto.TodoSearchCursor;
+import com.kaizenflow.doitnow.todo.dto.TodoSearchHit;
+import java.util.List;
+
+public interface TodoSearchRepository {
+
+    /**
+     * Finds todos whose title or description match {@code query}, best match first and by descending id among
+     * equal ranks, starting after {@code after} when it is given.
+     *
+     * <p>On PostgreSQL this is a lookup in the GIN index over {@code todos.search_vector}, ranked with
+     * {@code ts_rank}; {@code query} accepts web search syntax (quoted phrases, {@code or}, {@code -term}). Other
+     * databases fall back to an unranked case-insensitive match of every whitespace-separated term, which is what
+     * the H2 test database uses.
+     */
+    List<TodoSearchHit> search(String query, TodoSearchCursor after, int limit);
+}
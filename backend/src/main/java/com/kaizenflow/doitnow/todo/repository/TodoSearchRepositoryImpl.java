@@ -0,0 +1,93 @@
+package com.kaizenflow.doitnow.todo.repository;
+
+import com.kaizenflow.doitnow.todo.dto.TodoSearchCursor;
+import com.kaizenflow.doitnow.todo.dto.TodoSearchHit;
+import com.kaizenflow.doitnow.todo.entity.Todo;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+
+public class TodoSearchRepositoryImpl implements TodoSearchRepository {
+
+    // search_vector is a generated column maintained by the V10 migration, so it is not mapped on the entity
+    private static final String RANKED_MATCHES = """
+            SELECT t.id, ts_rank(t.search_vector, q) AS rank
+            FROM todos t, websearch_to_tsquery('english', :query) q
+            WHERE t.search_vector @@ q""";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<TodoSearchHit> search(String query, TodoSearchCursor after, int limit) {
+        return isPostgreSQL() ? searchIndexed(query, after, limit) : searchByPattern(query, after, limit);
+    }
+
+    private List<TodoSearchHit> searchIndexed(String query, TodoSearchCursor after, int limit) {
+        String sql = "SELECT id, rank FROM (" + RANKED_MATCHES + ") ranked"
+                + (after == null ? "" : " WHERE rank < :rank OR (rank = :rank AND id < :id)")
+                + " ORDER BY rank DESC, id DESC";
+        Query nativeQuery = entityManager.createNativeQuery(sql).setParameter("query", query);
+        if (after != null) {
+            nativeQuery.setParameter("rank", after.rank()).setParameter("id", after.id());
+        }
+
+        List<?> rows = nativeQuery.setMaxResults(limit).getResultList();
+        List<TodoSearchHit> hits = new ArrayList<>(rows.size());
+        for (Object row : rows) {
+            Object[] columns = (Object[]) row;
+            hits.add(new TodoSearchHit(((Number) columns[0]).longValue(), ((Number) columns[1]).floatValue()));
+        }
+        return hits;
+    }
+
+    private List<TodoSearchHit> searchByPattern(String query, TodoSearchCursor after, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> criteria = cb.createQuery(Long.class);
+        Root<Todo> root = criteria.from(Todo.class);
+
+        Expression<String> title = cb.lower(root.get("title"));
+        Expression<String> description = cb.lower(cb.coalesce(root.get("description"), ""));
+        List<Predicate> predicates = new ArrayList<>();
+        for (String term : query.toLowerCase(Locale.ROOT).split("\\s+")) {
+            if (!term.isEmpty()) {
+                String pattern = "%" + escapeLike(term) + "%";
+                predicates.add(cb.or(cb.like(title, pattern, '\\'), cb.like(description, pattern, '\\')));
+            }
+        }
+        // Every hit ranks the same, so the id alone orders the results and positions the cursor
+        if (after != null) {
+            predicates.add(cb.lessThan(root.get("id"), after.id()));
+        }
+        criteria.select(root.get("id"))
+                .where(predicates.toArray(Predicate[]::new))
+                .orderBy(cb.desc(root.get("id")));
+
+        return entityManager.createQuery(criteria).setMaxResults(limit).getResultList().stream()
+                .map(id -> new TodoSearchHit(id, 0f))
+                .toList();
+    }
+
+    private boolean isPostgreSQL() {
+        return entityManager
+                        .getEntityManagerFactory()
+                        .unwrap(SessionFactoryImplementor.class)
+                        .getJdbcServices()
+                        .getDialect()
+                instanceof PostgreSQLDialect;
+    }
+
+    private static String escapeLike(String term) {
+        return term.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,102 @@
+package com.kaizenflow.doitnow.todo.repository;
+
+import com.kaizenflow.doitnow.todo.dto.TodoBulkUpdateRequest;
+import com.kaizenflow.doitnow.todo.dto.TodoCursor;
+import com.kaizenflow.doitnow.todo.dto.TodoFilter;
+import com.kaizenflow.doitnow.todo.entity.Todo;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.PredicateSpecification;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.domain.UpdateSpecification;
+
+/**
+ * Building blocks for todo listing queries and bulk updates. Only the criteria that are actually set become
+ * predicates, so each combination of filters is a single statement whose WHERE clause the planner can match against
+ * the composite indexes.
+ */
+public final class TodoSpecifications {
+
+    /** Listing order used for keyset pagination: most recently updated first, id as tie-breaker. */
+    public static final Sort NEWEST_FIRST = Sort.by(Sort.Order.desc("updatedAt"), Sort.Order.desc("id"));
+
+    private TodoSpecifications() {}
+
+    public static Specification<Todo> matching(TodoFilter filter) {
+        return Specification.where(criteria(filter));
+    }
+
+    /** The filter's criteria on their own, usable in SELECT, UPDATE and DELETE statements alike. */
+    public static PredicateSpecification<Todo> criteria(TodoFilter filter) {
+        List<PredicateSpecification<Todo>> specifications = new ArrayList<>();
+        if (filter.getEntityIds() != null) {
+            specifications.add((from, cb) -> filter.getEntityIds().isEmpty()
+                    ? cb.disjunction()
+                    : from.get("entityId").in(filter.getEntityIds()));
+        }
+        if (filter.getCompleted() != null) {
+            specifications.add((from, cb) -> cb.equal(from.get("completed"), filter.getCompleted()));
+        }
+        if (filter.getPriority() != null) {
+            specifications.add((from, cb) -> cb.equal(from.get("priority"), filter.getPriority()));
+        }
+        if (filter.getAssignedTo() != null) {
+            specifications.add((from, cb) -> cb.equal(from.get("assignedTo"), filter.getAssignedTo()));
+        }
+        if (filter.getUserId() != null) {
+            specifications.add((from, cb) -> cb.equal(from.get("user").get("id"), filter.getUserId()));
+        }
+        if (filter.getDueFrom() != null) {
+            specifications.add((from, cb) -> cb.greaterThanOrEqualTo(from.get("dueDate"), filter.getDueFrom()));
+        }
+        if (filter.getDueTo() != null) {
+            specifications.add((from, cb) -> cb.lessThanOrEqualTo(from.get("dueDate"), filter.getDueTo()));
+        }
+        return PredicateSpecification.allOf(specifications);
+    }
+
+    /**
+     * Sets the fields present in {@code request} on every matching row. Bulk updates bypass {@code @UpdateTimestamp}
+     * and {@code @Version}, so both are maintained explicitly, and the entity callback that clears {@code changeSeq}
+     * for {@code TodoChangeSequence}, so it is cleared here too.
+     */
+    public static UpdateSpecification<Todo> applying(TodoBulkUpdateRequest request, OffsetDateTime updatedAt) {
+        return UpdateSpecification.<Todo>update((root, update, cb) -> {
+                    if (request.getCompleted() != null) {
+                        update.set(root.<Boolean>get("completed"), request.getCompleted());
+                    }
+                    if (request.getPriority() != null) {
+                        update.set(root.<String>get("priority"), request.getPriority());
+                    }
+                    if (request.getAssignedTo() != null) {
+                        update.set(root.<String>get("assignedTo"), request.getAssignedTo());
+                    }
+                    update.set(root.<OffsetDateTime>get("updatedAt"), updatedAt);
+                    update.set(root.<Long>get("version"), cb.sum(root.<Long>get("version"), 1L));
+                    update.set(root.<Long>get("changeSeq"), cb.nullLiteral(Long.class));
+                })
+                .where(criteria(request.getFilter()));
+    }
+
+    /** Rows with the given primary keys. */
+    public static Specification<Todo> withIds(Collection<Long> ids) {
+        return (root, query, cb) -> root.get("id").in(ids);
+    }
+
+    /** Rows with a primary key greater than {@code id}, for walking a match in id order. */
+    public static Specification<Todo> idAfter(Long id) {
+        return (root, query, cb) -> cb.greaterThan(root.get("id"), id);
+    }
+
+    /** Rows that come after {@code cursor} in {@link #NEWEST_FIRST} order. */
+    public static Specification<Todo> after(TodoCursor cursor) {
+        return (root, query, cb) -> cb.and(
+                cb.lessThanOrEqualTo(root.get("updatedAt"), cursor.updatedAt()),
+                cb.or(
+                        cb.lessThan(root.get("updatedAt"), cursor.updatedAt()),
+                        cb.lessThan(root.get("id"), cursor.id())));
+    }
+}
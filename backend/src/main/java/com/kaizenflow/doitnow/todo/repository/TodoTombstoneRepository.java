@@ -0,0 +1,34 @@
+package com.kaizenflow.doitnow.todo.repository;
+
+import com.kaizenflow.doitnow.todo.entity.TodoTombstone;
+import java.util.List;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface TodoTombstoneRepository extends JpaRepository<TodoTombstone, Long> {
+
+    @Query("""
+            SELECT t FROM TodoTombstone t
+            WHERE t.changeSeq >= :change AND (t.changeSeq > :change OR t.id > :id)
+            ORDER BY t.changeSeq ASC, t.id ASC""")
+    List<TodoTombstone> findDeletedAfter(@Param("change") long change, @Param("id") long id, Limit limit);
+
+    /**
+     * Writes a tombstone for each of a user's todos with a single INSERT ... SELECT, for todos about to be deleted by
+     * the database cascade. Each row draws its id straight from the sequence, which cannot clash with the id blocks
+     * the pooled optimizer hands out but uses up a whole block per row; the sequence is BIGINT for that reason (V16).
+     * {@code change_seq} is left NULL for {@link TodoChangeSequence} to stamp.
+     */
+    @Modifying
+    @Query(value = """
+                    INSERT INTO todo_tombstones (id, todo_id, entity_id, deleted_at)
+                    SELECT nextval('todo_tombstones_id_seq'), t.id, t.entity_id, CURRENT_TIMESTAMP
+                    FROM todos t
+                    WHERE t.user_id = :userId""", nativeQuery = true)
+    int insertForUserId(@Param("userId") Long userId);
+}
@@ -0,0 +1,31 @@
+package com.kaizenflow.doitnow.todo.repository;
+
+import com.kaizenflow.doitnow.todo.dto.TodoPatchRequest;
+import java.time.OffsetDateTime;
+
+/**
+ * Single-statement writes to one todo. They run over JDBC rather than as JPQL bulk statements, which would make
+ * Hibernate drop the whole todo and natural-id cache regions for a one-row change; callers evict the todo's own
+ * entries through {@link TodoCacheEviction} instead.
+ */
+public interface TodoWriteRepository {
+
+    /**
+     * Writes the fields present in {@code patch} to the todo with the given entity ID in a single UPDATE statement,
+     * only if the todo is still at {@code expectedVersion} (when given).
+     *
+     * @return the number of rows updated, 0 when no such todo exists or its version differs
+     */
+    int applyPatch(Long entityId, TodoPatchRequest patch, Long expectedVersion, OffsetDateTime updatedAt);
+
+    /**
+     * Flips {@code completed} in one UPDATE, so concurrent toggles of the same todo serialize on the row lock and
+     * each sees the previous toggle's result instead of overwriting it.
+     *
+     * @return the number of rows updated, 0 when no such todo exists
+     */
+    int toggleCompleted(Long entityId, OffsetDateTime updatedAt);
+
+    /** @return the number of rows deleted, 0 when no such todo exists */
+    int deleteByEntityId(Long entityId);
+}
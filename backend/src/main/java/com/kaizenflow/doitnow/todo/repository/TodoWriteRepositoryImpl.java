@@ -0,0 +1,61 @@
+package com.kaizenflow.doitnow.todo.repository;
+
+import com.kaizenflow.doitnow.todo.dto.TodoPatchRequest;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+// Plain SQL bypasses @UpdateTimestamp, @Version and the changeSeq reset, so every UPDATE maintains all three itself
+@RequiredArgsConstructor
+public class TodoWriteRepositoryImpl implements TodoWriteRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public int applyPatch(Long entityId, TodoPatchRequest patch, Long expectedVersion, OffsetDateTime updatedAt) {
+        List<String> assignments = new ArrayList<>();
+        List<Object> arguments = new ArrayList<>();
+        set(assignments, arguments, "title", patch.getTitle());
+        set(assignments, arguments, "description", patch.getDescription());
+        set(assignments, arguments, "completed", patch.getCompleted());
+        set(assignments, arguments, "priority", patch.getPriority());
+        set(assignments, arguments, "due_date", patch.getDueDate());
+        set(assignments, arguments, "assigned_to", patch.getAssignedTo());
+        set(assignments, arguments, "updated_at", updatedAt);
+        assignments.add("version = version + 1");
+        assignments.add("change_seq = NULL");
+
+        String sql = "UPDATE todos SET " + String.join(", ", assignments) + " WHERE entity_id = ?";
+        arguments.add(entityId);
+        if (expectedVersion != null) {
+            sql += " AND version = ?";
+            arguments.add(expectedVersion);
+        }
+        return jdbcTemplate.update(sql, arguments.toArray());
+    }
+
+    @Override
+    public int toggleCompleted(Long entityId, OffsetDateTime updatedAt) {
+        return jdbcTemplate.update(
+                """
+                UPDATE todos
+                   SET completed = NOT completed, updated_at = ?, version = version + 1, change_seq = NULL
+                 WHERE entity_id = ?""",
+                updatedAt,
+                entityId);
+    }
+
+    @Override
+    public int deleteByEntityId(Long entityId) {
+        return jdbcTemplate.update("DELETE FROM todos WHERE entity_id = ?", entityId);
+    }
+
+    private static void set(List<String> assignments, List<Object> arguments, String column, Object value) {
+        if (value != null) {
+            assignments.add(column + " = ?");
+            arguments.add(value);
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.kaizenflow.doitnow.todo.service;
+
+import com.kaizenflow.doitnow.common.dto.CursorPage;
+import com.kaizenflow.doitnow.common.exception.InvalidRequestException;
+import com.kaizenflow.doitnow.common.metrics.ServiceMetrics;
+import com.kaizenflow.doitnow.todo.dto.TodoBulkResponse;
+import com.kaizenflow.doitnow.todo.dto.TodoCursor;
+import com.kaizenflow.doitnow.todo.dto.TodoEvent;
+import com.kaizenflow.doitnow.todo.dto.TodoResponse;
+import com.kaizenflow.doitnow.todo.entity.ArchivedTodo;
+import com.kaizenflow.doitnow.todo.exception.TodoNotFoundException;
+import com.kaizenflow.doitnow.todo.mapper.TodoMapper;
+import com.kaizenflow.doitnow.todo.repository.TodoArchiveRepository;
+import com.kaizenflow.doitnow.todo.repository.TodoCacheEviction;
+import com.kaizenflow.doitnow.todo.repository.TodoChangeSequence;
+import com.kaizenflow.doitnow.todo.repository.TodoRepository;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Keeps {@code todos} down to live work by moving completed todos that have not changed for {@code min-age} into
+ * {@code todos_archive}, and serves and restores archived todos.
+ *
+ * <p>Each batch of up to {@code batch-size} todos is locked, copied and deleted in its own short transaction, so a
+ * run never holds locks on more than one batch and a large backlog is worked off without one huge transaction.
+ *
+ * <p>To clients, archiving looks like a deletion: each archived todo leaves a tombstone, so the changes feed tells
+ * them to drop their copies. Its entity id stays reserved while it is archived; creating a todo with it, through any
+ * endpoint, is refused, and sync operations on it report {@code ARCHIVED} rather than {@code NOT_FOUND}. Restoring
+ * the todo brings it back to clients as a change.
+ */
+@Slf4j
+@Service
+@Timed(value = ServiceMetrics.TIMER, description = ServiceMetrics.DESCRIPTION)
+public class TodoArchiveService {
+
+    private final TodoArchiveRepository todoArchiveRepository;
+    private final TodoRepository todoRepository;
+    private final TodoChangeSequence todoChangeSequence;
+    private final TodoCacheEviction todoCacheEviction;
+    private final TodoMapper todoMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter archivedTodos;
+
+    @Value("${doitnow.todos.archive.min-age:90d}")
+    private Duration minAge;
+
+    @Value("${doitnow.todos.archive.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${doitnow.todos.archive.max-batches-per-run:1000}")
+    private int maxBatchesPerRun;
+
+    public TodoArchiveService(
+            TodoArchiveRepository todoArchiveRepository,
+            TodoRepository todoRepository,
+            TodoChangeSequence todoChangeSequence,
+            TodoCacheEviction todoCacheEviction,
+            TodoMapper todoMapper,
+            ApplicationEventPublisher eventPublisher,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry) {
+        this.todoArchiveRepository = todoArchiveRepository;
+        this.todoRepository = todoRepository;
+        this.todoChangeSequence = todoChangeSequence;
+        this.todoCacheEviction = todoCacheEviction;
+        this.todoMapper = todoMapper;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.archivedTodos = Counter.builder("doitnow.todos.archived")
+                .description("Completed todos moved from todos to todos_archive")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${doitnow.todos.archive.cron:0 0 3 * * *}")
+    public void archiveOnSchedule() {
+        archiveExpired();
+    }
+
+    /** Archives completed todos that have not changed for {@code min-age}. */
+    public TodoBulkResponse archiveExpired() {
+        return archiveCompletedBefore(OffsetDateTime.now(ZoneOffset.UTC).minus(minAge));
+    }
+
+    /**
+     * Moves completed todos last changed before {@code cutoff} to the archive, batch by batch, until none are left
+     * or {@code max-batches-per-run} batches have been moved.
+     */
+    public TodoBulkResponse archiveCompletedBefore(OffsetDateTime cutoff) {
+        long moved = 0;
+        int batches = 0;
+        int lastBatch;
+        do {
+            lastBatch = transactionTemplate.execute(status -> archiveBatch(cutoff));
+            moved += lastBatch;
+            batches++;
+        } while (lastBatch == batchSize && batches < maxBatchesPerRun);
+
+        archivedTodos.increment(moved);
+        log.info("Archived {} completed todos last changed before {} in {} batches", moved, cutoff, batches);
+        return new TodoBulkResponse(moved);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<TodoResponse> getArchivedTodos(String cursor, int limit) {
+        int pageSize = TodoService.clampPageSize(limit);
+        List<TodoResponse> rows;
+        if (cursor == null) {
+            rows = todoArchiveRepository.findFirstPage(Limit.of(pageSize + 1));
+        } else {
+            TodoCursor after = TodoCursor.decode(cursor);
+            rows = todoArchiveRepository.findPageAfter(after.updatedAt(), after.id(), Limit.of(pageSize + 1));
+        }
+        return TodoService.toPage(rows, pageSize);
+    }
+
+    @Transactional(readOnly = true)
+    public TodoResponse getArchivedTodo(Long entityId) {
+        return todoMapper.toResponse(findArchived(entityId));
+    }
+
+    /** Moves an archived todo back into {@code todos}, unless a live todo has taken its entity id since. */
+    @Transactional
+    public TodoResponse restoreTodo(Long entityId) {
+        todoChangeSequence.stampOnCommit();
+        ArchivedTodo archived = findArchived(entityId);
+        if (todoRepository.findIdByEntityId(entityId).isPresent()) {
+            throw new InvalidRequestException("A todo with entity ID " + entityId + " already exists");
+        }
+        todoArchiveRepository.copyToTodos(archived.getId());
+        todoArchiveRepository.deleteArchivedById(archived.getId());
+        TodoResponse response = todoRepository
+                .findResponseByEntityId(entityId)
+                .orElseThrow(() -> new TodoNotFoundException(entityId));
+        eventPublisher.publishEvent(TodoEvent.created(response));
+        return response;
+    }
+
+    private int archiveBatch(OffsetDateTime cutoff) {
+        Map<Long, Long> entityIdsById = todoArchiveRepository.lockArchivable(cutoff, batchSize);
+        if (entityIdsById.isEmpty()) {
+            return 0;
+        }
+        todoChangeSequence.stampOnCommit();
+        todoArchiveRepository.copyFromTodos(entityIdsById.keySet());
+        todoArchiveRepository.deleteFromTodos(entityIdsById.keySet());
+        todoCacheEviction.evictDeletedOnCommit(entityIdsById);
+        // One event per batch rather than per todo; subscribers pick the tombstones up from the changes feed
+        eventPublisher.publishEvent(TodoEvent.resync());
+        return entityIdsById.size();
+    }
+
+    private ArchivedTodo findArchived(Long entityId) {
+        return todoArchiveRepository
+                .findFirstByEntityIdOrderByArchivedAtDesc(entityId)
+                .orElseThrow(() -> new TodoNotFoundException("Archived todo not found with entity id: " + entityId));
+    }
+}
@@ -0,0 +1,66 @@
+package com.kaizenflow.doitnow.todo.service;
+
+import com.kaizenflow.doitnow.common.dto.CursorPage;
+import com.kaizenflow.doitnow.common.exception.InvalidRequestException;
+import com.kaizenflow.doitnow.todo.dto.TodoResponse;
+import com.kaizenflow.doitnow.todo.dto.TodoRevision;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import org.springframework.util.DigestUtils;
+
+/**
+ * Entity tags for todo responses. A single todo's tag is its version. A page's tag digests the id and version of
+ * every todo on it plus whether a next page exists, which is everything its content depends on, so it can be
+ * computed from {@link TodoRevision}s without loading the page.
+ *
+ * <p>The tags are weak: they name the content, while the JSON, CBOR and Smile representations of it, gzipped or
+ * not, differ byte for byte. A strong tag would claim those bodies are identical.
+ */
+public final class TodoETags {
+
+    private TodoETags() {}
+
+    public static String forTodo(TodoResponse todo) {
+        return weak(String.valueOf(todo.getVersion()));
+    }
+
+    public static String forPage(CursorPage<TodoResponse> page) {
+        List<TodoRevision> revisions = page.getItems().stream()
+                .map(todo -> new TodoRevision(todo.getId(), todo.getVersion()))
+                .toList();
+        return forPage(revisions, page.getNextCursor() != null);
+    }
+
+    static String forPage(List<TodoRevision> revisions, boolean hasMore) {
+        StringBuilder content = new StringBuilder(revisions.size() * 12);
+        for (TodoRevision revision : revisions) {
+            content.append(revision.id()).append(':').append(revision.version()).append(',');
+        }
+        content.append(hasMore);
+        return weak(DigestUtils.md5DigestAsHex(content.toString().getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Reads the version a client expects from an {@code If-Match} header, or {@code null} when there is no
+     * precondition ({@code *} or no header).
+     */
+    public static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.startsWith("W/")) {
+            tag = tag.substring(2);
+        }
+        tag = tag.replace("\"", "");
+        try {
+            return Long.valueOf(tag);
+        } catch (NumberFormatException e) {
+            throw new InvalidRequestException("Invalid If-Match header: " + ifMatch);
+        }
+    }
+
+    private static String weak(String tag) {
+        return "W/\"" + tag + "\"";
+    }
+}
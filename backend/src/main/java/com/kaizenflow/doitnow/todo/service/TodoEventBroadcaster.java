@@ -0,0 +1,213 @@
+package com.kaizenflow.doitnow.todo.service;
+
+import com.kaizenflow.doitnow.todo.dto.TodoEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Pushes committed todo changes to event stream subscribers.
+ *
+ * <p>{@link TodoEvent}s published inside a transaction reach {@link #onTodoEvent} only once it has committed. Each
+ * event gets an id of the form {@code <epoch>-<sequence>}, where the epoch identifies this process, and the latest
+ * {@code replay-size} events are kept so a client reconnecting with {@code Last-Event-ID} receives what it missed. A
+ * client that has missed more than that, or whose id comes from another process, gets a single
+ * {@link com.kaizenflow.doitnow.todo.dto.TodoEventType#RESYNC RESYNC} event and catches up through the changes feed.
+ *
+ * <p>Publishing never blocks on a client. Every subscriber has a queue bounded at {@code buffer-size} events that
+ * is drained on a virtual thread, so a stalled socket parks only that subscriber's sender. A subscriber whose queue
+ * overflows is disconnected and is expected to reconnect with its last event id.
+ */
+@Component
+@Slf4j
+public class TodoEventBroadcaster {
+
+    private static final String EVENT_NAME = "todo";
+
+    private final int bufferSize;
+    private final int replaySize;
+    private final Duration timeout;
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final SimpleAsyncTaskExecutor senders = new SimpleAsyncTaskExecutor("todo-events-");
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final Counter slowSubscriberDisconnects;
+
+    // Guarded by this, together with the fan-out, so replay and live delivery agree on event order
+    private final Deque<Envelope> replay = new ArrayDeque<>();
+    private long sequence;
+
+    public TodoEventBroadcaster(
+            @Value("${doitnow.todos.events.buffer-size:256}") int bufferSize,
+            @Value("${doitnow.todos.events.replay-size:1024}") int replaySize,
+            @Value("${doitnow.todos.events.timeout:30m}") Duration timeout,
+            MeterRegistry meterRegistry) {
+        this.bufferSize = bufferSize;
+        this.replaySize = replaySize;
+        this.timeout = timeout;
+        senders.setVirtualThreads(true);
+        Gauge.builder("doitnow.todos.events.subscribers", subscribers, Set::size)
+                .description("Clients connected to the todo event stream")
+                .register(meterRegistry);
+        slowSubscriberDisconnects = Counter.builder("doitnow.todos.events.slow.disconnects")
+                .description("Subscribers disconnected because their event buffer overflowed")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Opens an event stream, first replaying the events after {@code lastEventId} when one is given.
+     */
+    public SseEmitter subscribe(String lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(error -> subscribers.remove(subscriber));
+
+        synchronized (this) {
+            // Sent first so the client sees the stream open even when there is nothing to replay
+            subscriber.offer(SseEmitter.event().comment("connected").build());
+            if (lastEventId != null) {
+                List<Envelope> missed = missedSince(lastEventId);
+                if (missed == null || missed.size() > bufferSize - 1) {
+                    subscriber.offer(toSse(new Envelope(currentId(), TodoEvent.resync())));
+                } else {
+                    missed.forEach(envelope -> subscriber.offer(toSse(envelope)));
+                }
+            }
+            subscribers.add(subscriber);
+        }
+        return emitter;
+    }
+
+    @TransactionalEventListener
+    public synchronized void onTodoEvent(TodoEvent event) {
+        Envelope envelope = new Envelope(epoch + "-" + (++sequence), event);
+        replay.addLast(envelope);
+        if (replay.size() > replaySize) {
+            replay.removeFirst();
+        }
+        Set<DataWithMediaType> sse = toSse(envelope);
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(sse);
+        }
+    }
+
+    /** Keeps idle connections from being closed by proxies and notices clients that have gone away. */
+    @Scheduled(fixedDelayString = "${doitnow.todos.events.heartbeat-interval:30s}")
+    public void sendHeartbeats() {
+        Set<DataWithMediaType> heartbeat = SseEmitter.event().comment("heartbeat").build();
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(heartbeat);
+        }
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    // Events after lastEventId, or null when they can no longer be told apart from what has been dropped
+    private List<Envelope> missedSince(String lastEventId) {
+        int separator = lastEventId.lastIndexOf('-');
+        if (separator < 0 || !lastEventId.substring(0, separator).equals(epoch)) {
+            return null;
+        }
+        long lastSequence;
+        try {
+            lastSequence = Long.parseLong(lastEventId.substring(separator + 1));
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+        long oldestKept = sequence - replay.size() + 1;
+        if (lastSequence > sequence || lastSequence < oldestKept - 1) {
+            return null;
+        }
+        return replay.stream().skip(lastSequence - oldestKept + 1).toList();
+    }
+
+    private String currentId() {
+        return epoch + "-" + sequence;
+    }
+
+    // Built once and then only read by every subscriber's sender; a builder must not be built from several threads
+    private static Set<DataWithMediaType> toSse(Envelope envelope) {
+        return SseEmitter.event()
+                .id(envelope.id())
+                .name(EVENT_NAME)
+                .data(envelope.event(), MediaType.APPLICATION_JSON)
+                .build();
+    }
+
+    private record Envelope(String id, TodoEvent event) {}
+
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final BlockingQueue<Set<DataWithMediaType>> queue = new ArrayBlockingQueue<>(bufferSize);
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean closed;
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        void offer(Set<DataWithMediaType> event) {
+            if (closed) {
+                return;
+            }
+            if (!queue.offer(event)) {
+                log.warn("Disconnecting todo event subscriber that fell {} events behind", bufferSize);
+                slowSubscriberDisconnects.increment();
+                close();
+                return;
+            }
+            if (draining.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                Set<DataWithMediaType> event;
+                while (!closed && (event = queue.poll()) != null) {
+                    emitter.send(event);
+                }
+            } catch (IOException | IllegalStateException ex) {
+                // The client went away or the emitter already completed
+                close();
+            } finally {
+                draining.set(false);
+            }
+            // An event offered after the last poll but before the flag was cleared would otherwise wait for the next
+            if (!closed && !queue.isEmpty() && draining.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+        }
+
+        private void close() {
+            closed = true;
+            subscribers.remove(this);
+            queue.clear();
+            // complete() waits for a send in progress, which is exactly what a slow subscriber is stuck in
+            senders.execute(emitter::complete);
+        }
+    }
+}
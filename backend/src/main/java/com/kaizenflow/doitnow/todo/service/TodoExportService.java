@@ -0,0 +1,63 @@
+package com.kaizenflow.doitnow.todo.service;
+
+import com.kaizenflow.doitnow.common.metrics.ServiceMetrics;
+import com.kaizenflow.doitnow.todo.dto.TodoResponse;
+import com.kaizenflow.doitnow.todo.entity.Todo;
+import com.kaizenflow.doitnow.todo.mapper.TodoMapper;
+import com.kaizenflow.doitnow.todo.repository.TodoRepository;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.databind.ObjectWriter;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Writes every todo as newline-delimited JSON without holding the result set in memory.
+ *
+ * <p>Rows are read through a streaming cursor and each {@code TodoResponse} is written straight to the output as
+ * soon as it is mapped. The persistence context is cleared every {@link TodoRepository#EXPORT_FETCH_SIZE} rows so
+ * the entities already written can be collected, keeping heap usage flat however many todos are exported.
+ */
+@Service
+@RequiredArgsConstructor
+@Timed(value = ServiceMetrics.TIMER, description = ServiceMetrics.DESCRIPTION)
+public class TodoExportService {
+
+    private static final int OUTPUT_BUFFER_SIZE = 64 * 1024;
+
+    private final TodoRepository todoRepository;
+    private final TodoMapper todoMapper;
+    private final EntityManager entityManager;
+    private final JsonMapper jsonMapper;
+
+    @Transactional(readOnly = true)
+    public long exportNdjson(OutputStream outputStream) throws IOException {
+        ObjectWriter writer = jsonMapper.writerFor(TodoResponse.class);
+        OutputStream out = new BufferedOutputStream(outputStream, OUTPUT_BUFFER_SIZE);
+        long written = 0;
+
+        try (Stream<Todo> todos = todoRepository.streamAllForExport()) {
+            Iterator<Todo> iterator = todos.iterator();
+            while (iterator.hasNext()) {
+                out.write(writer.writeValueAsBytes(todoMapper.toResponse(iterator.next())));
+                out.write('\n');
+                written++;
+
+                if (written % TodoRepository.EXPORT_FETCH_SIZE == 0) {
+                    entityManager.clear();
+                    out.flush();
+                }
+            }
+        }
+
+        out.flush();
+        return written;
+    }
+}
@@ -1,59 +1,239 @@
 package com.kaizenflow.doitnow.todo.service;
 
+import com.kaizenflow.doitnow.common.dto.CursorPage;
+import com.kaizenflow.doitnow.common.exception.InvalidRequestException;
+import com.kaizenflow.doitnow.common.metrics.ServiceMetrics;
+import com.kaizenflow.doitnow.todo.dto.TodoBulkResponse;
+import com.kaizenflow.doitnow.todo.dto.TodoBulkUpdateRequest;
+import com.kaizenflow.doitnow.todo.dto.TodoChangeWatermark;
+import com.kaizenflow.doitnow.todo.dto.TodoChangesResponse;
+import com.kaizenflow.doitnow.todo.dto.TodoCountsResponse;
+import com.kaizenflow.doitnow.todo.dto.TodoCursor;
+import com.kaizenflow.doitnow.todo.dto.TodoEvent;
+import com.kaizenflow.doitnow.todo.dto.TodoFilter;
+import com.kaizenflow.doitnow.todo.dto.TodoPatchRequest;
 import com.kaizenflow.doitnow.todo.dto.TodoRequest;
 import com.kaizenflow.doitnow.todo.dto.TodoResponse;
+import com.kaizenflow.doitnow.todo.dto.TodoRevision;
+import com.kaizenflow.doitnow.todo.dto.TodoSearchCursor;
+import com.kaizenflow.doitnow.todo.dto.TodoSearchHit;
 import com.kaizenflow.doitnow.todo.entity.Todo;
+import com.kaizenflow.doitnow.todo.entity.TodoTombstone;
 import com.kaizenflow.doitnow.todo.exception.TodoNotFoundException;
+import com.kaizenflow.doitnow.todo.exception.TodoVersionMismatchException;
 import com.kaizenflow.doitnow.todo.mapper.TodoMapper;
+import com.kaizenflow.doitnow.todo.repository.TodoArchiveRepository;
+import com.kaizenflow.doitnow.todo.repository.TodoCacheEviction;
+import com.kaizenflow.doitnow.todo.repository.TodoChangeSequence;
 import com.kaizenflow.doitnow.todo.repository.TodoRepository;
+import com.kaizenflow.doitnow.todo.repository.TodoSpecifications;
+import com.kaizenflow.doitnow.todo.repository.TodoTombstoneRepository;
+import com.kaizenflow.doitnow.user.exception.UserNotFoundException;
+import com.kaizenflow.doitnow.user.repository.UserRepository;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 @Service
 @RequiredArgsConstructor
+@Timed(value = ServiceMetrics.TIMER, description = ServiceMetrics.DESCRIPTION)
 public class TodoService {
 
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 200;
+    public static final int MAX_CHANGES_LIMIT = 1000;
+    public static final int BULK_DELETE_CHUNK_SIZE = 1000;
+    public static final int MAX_SEARCH_QUERY_LENGTH = 200;
+
     private final TodoRepository todoRepository;
+    private final TodoTombstoneRepository todoTombstoneRepository;
+    private final TodoArchiveRepository todoArchiveRepository;
+    private final TodoChangeSequence todoChangeSequence;
+    private final TodoCacheEviction todoCacheEviction;
     private final TodoMapper todoMapper;
+    private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @PersistenceContext
+    private EntityManager entityManager;
 
     @Transactional(readOnly = true)
-    public List<TodoResponse> getAllTodos() {
-        return todoRepository.findAll().stream().map(todoMapper::toResponse).collect(Collectors.toList());
+    public CursorPage<TodoResponse> getTodos(TodoFilter filter, String cursor, int limit) {
+        int pageSize = clampPageSize(limit);
+        List<TodoResponse> rows = todoRepository.findResponses(
+                pageSpecification(filter, cursor), TodoSpecifications.NEWEST_FIRST, pageSize + 1);
+        return toPage(rows, pageSize);
     }
 
+    /**
+     * The entity tag {@link #getTodos} would produce for the same arguments, computed from the ids and versions of
+     * the page's rows alone so that an unchanged page can be answered with 304 without loading it.
+     */
     @Transactional(readOnly = true)
-    public TodoResponse getTodoById(Long id) {
-        Todo todo = todoRepository.findByEntityId(id).orElseThrow(() -> new TodoNotFoundException(id));
-        return todoMapper.toResponse(todo);
+    public String getTodosETag(TodoFilter filter, String cursor, int limit) {
+        int pageSize = clampPageSize(limit);
+        List<TodoRevision> rows = todoRepository.findRevisions(
+                pageSpecification(filter, cursor), TodoSpecifications.NEWEST_FIRST, pageSize + 1);
+        boolean hasMore = rows.size() > pageSize;
+        return TodoETags.forPage(hasMore ? rows.subList(0, pageSize) : rows, hasMore);
+    }
+
+    /**
+     * Returns one page of the todos whose title or description match {@code query}, best match first. The matching
+     * ids are found in the full-text index and only the rows on the page are then loaded.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<TodoResponse> searchTodos(String query, String cursor, int limit) {
+        if (query == null || query.isBlank()) {
+            throw new InvalidRequestException("Search query must not be blank");
+        }
+        if (query.length() > MAX_SEARCH_QUERY_LENGTH) {
+            throw new InvalidRequestException(
+                    "Search query must not exceed " + MAX_SEARCH_QUERY_LENGTH + " characters");
+        }
+        int pageSize = clampPageSize(limit);
+        TodoSearchCursor after = cursor == null ? null : TodoSearchCursor.decode(cursor);
+
+        List<TodoSearchHit> hits = todoRepository.search(query.strip(), after, pageSize + 1);
+        boolean hasMore = hits.size() > pageSize;
+        if (hasMore) {
+            hits = hits.subList(0, pageSize);
+        }
+        if (hits.isEmpty()) {
+            return new CursorPage<>(List.of(), null, pageSize);
+        }
+
+        List<Long> ids = hits.stream().map(TodoSearchHit::id).toList();
+        Map<Long, TodoResponse> responses =
+                todoRepository.findResponses(TodoSpecifications.withIds(ids), Sort.unsorted(), ids.size()).stream()
+                        .collect(Collectors.toMap(TodoResponse::getId, Function.identity()));
+        // A todo deleted between the two queries is simply left out of the page
+        List<TodoResponse> items =
+                ids.stream().map(responses::get).filter(Objects::nonNull).toList();
+        String nextCursor = hasMore ? TodoSearchCursor.of(hits.getLast()).encode() : null;
+        return new CursorPage<>(items, nextCursor, pageSize);
+    }
+
+    /**
+     * Returns one page of a user's todos, narrowed by {@code filter} (whose own {@code userId} is ignored). The
+     * user's existence is only checked when the page comes back empty, so a page costs a single query.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<TodoResponse> getTodosForUser(Long userId, TodoFilter filter, String cursor, int limit) {
+        filter.setUserId(userId);
+        CursorPage<TodoResponse> page = getTodos(filter, cursor, limit);
+        if (page.getItems().isEmpty()) {
+            requireUser(userId);
+        }
+        return page;
     }
 
     @Transactional(readOnly = true)
-    public List<TodoResponse> getTodosByCompleted(Boolean completed) {
-        return todoRepository.findByCompleted(completed).stream()
-                .map(todoMapper::toResponse)
-                .collect(Collectors.toList());
+    public TodoCountsResponse getTodoCountsForUser(Long userId) {
+        TodoCountsResponse counts = todoRepository.countByUserId(userId, OffsetDateTime.now(ZoneOffset.UTC));
+        if (counts.getTotal() == 0) {
+            requireUser(userId);
+        }
+        return counts;
     }
 
     @Transactional(readOnly = true)
-    public List<TodoResponse> getTodosByPriority(String priority) {
-        return todoRepository.findByPriority(priority).stream()
-                .map(todoMapper::toResponse)
-                .collect(Collectors.toList());
+    public TodoResponse getTodoById(Long id) {
+        Todo todo = todoRepository.findByNaturalId(id).orElseThrow(() -> new TodoNotFoundException(id));
+        return todoMapper.toResponse(todo);
     }
 
     @Transactional(readOnly = true)
     public List<TodoResponse> getTodosByDueDateRange(OffsetDateTime start, OffsetDateTime end) {
-        return todoRepository.findByDueDateBetween(start, end).stream()
-                .map(todoMapper::toResponse)
-                .collect(Collectors.toList());
+        return todoRepository.findResponsesByDueDateBetween(start, end);
+    }
+
+    /**
+     * Returns the todos changed and deleted since {@code since}, or everything when no watermark is given.
+     *
+     * <p>Both streams are paged by the change number {@link TodoChangeSequence} stamps as each writing transaction
+     * commits. Numbers are handed out in commit order, so no write can later appear behind the returned watermark.
+     *
+     * <p>Every response is a prefix of the changes in commit order: when one stream is cut short, the other is cut
+     * back to the same change number, so a tombstone can never arrive a page after the todo that replaced it under
+     * the same entity ID. Within a page, clients apply {@code deleted} before {@code changed}.
+     */
+    @Transactional(readOnly = true)
+    public TodoChangesResponse getChangesSince(String since, int limit) {
+        TodoChangeWatermark from = since == null ? TodoChangeWatermark.INITIAL : TodoChangeWatermark.decode(since);
+        int pageSize = Math.clamp(limit, 1, MAX_CHANGES_LIMIT);
+
+        List<Todo> changed = todoRepository.findChangedAfter(
+                from.todos().change(), from.todos().id(), Limit.of(pageSize + 1));
+        List<TodoTombstone> deleted = todoTombstoneRepository.findDeletedAfter(
+                from.tombstones().change(), from.tombstones().id(), Limit.of(pageSize + 1));
+
+        boolean changedCut = changed.size() > pageSize;
+        boolean deletedCut = deleted.size() > pageSize;
+        boolean hasMore = changedCut || deletedCut;
+        if (hasMore) {
+            long bound = Long.MAX_VALUE;
+            if (changedCut) {
+                bound = changed.get(pageSize - 1).getChangeSeq();
+            }
+            if (deletedCut) {
+                bound = Math.min(bound, deleted.get(pageSize - 1).getChangeSeq());
+            }
+            // Deletions are applied first, so a change's tombstones may go out without its todos but not the other
+            // way round: its todos only go out once none of its tombstones are left for a later page
+            boolean boundDeletedInFull = !deletedCut || deleted.get(pageSize).getChangeSeq() > bound;
+            long deletedBound = bound;
+            long changedBound = boundDeletedInFull ? bound : bound - 1;
+            deleted = deleted.stream()
+                    .limit(pageSize)
+                    .takeWhile(tombstone -> tombstone.getChangeSeq() <= deletedBound)
+                    .toList();
+            changed = changed.stream()
+                    .limit(pageSize)
+                    .takeWhile(todo -> todo.getChangeSeq() <= changedBound)
+                    .toList();
+        }
+
+        TodoChangeWatermark.Position todosPosition = from.todos();
+        if (!changed.isEmpty()) {
+            Todo last = changed.getLast();
+            todosPosition = new TodoChangeWatermark.Position(last.getChangeSeq(), last.getId());
+        }
+        TodoChangeWatermark.Position tombstonesPosition = from.tombstones();
+        if (!deleted.isEmpty()) {
+            TodoTombstone last = deleted.getLast();
+            tombstonesPosition = new TodoChangeWatermark.Position(last.getChangeSeq(), last.getId());
+        }
+
+        return new TodoChangesResponse(
+                changed.stream().map(todoMapper::toResponse).collect(Collectors.toList()),
+                deleted.stream().map(todoMapper::toTombstoneResponse).collect(Collectors.toList()),
+                new TodoChangeWatermark(todosPosition, tombstonesPosition).encode(),
+                hasMore);
     }
 
     @Transactional
     public TodoResponse createTodo(TodoRequest request) {
+        todoChangeSequence.stampOnCommit();
+        // The unique index only covers todos, so an archived todo's entity id has to be checked for here
+        if (request.getEntityId() != null && todoArchiveRepository.existsByEntityId(request.getEntityId())) {
+            throw new InvalidRequestException(
+                    "Todo with entity ID " + request.getEntityId() + " is archived; restore it instead");
+        }
         Todo todo = todoMapper.toEntity(request);
         if (todo.getCompleted() == null) {
             todo.setCompleted(false);
@@ -63,32 +243,172 @@ public class TodoService {
         }
 
         Todo savedTodo = todoRepository.save(todo);
-        return todoMapper.toResponse(savedTodo);
+        TodoResponse response = todoMapper.toResponse(savedTodo);
+        eventPublisher.publishEvent(TodoEvent.created(response));
+        return response;
     }
 
+    /**
+     * Replaces the todo's fields. With an {@code expectedVersion}, fails with {@link TodoVersionMismatchException}
+     * if the todo has changed since the client read that version.
+     */
     @Transactional
-    public TodoResponse updateTodo(Long id, TodoRequest request) {
-        Todo todo =
-                todoRepository.findByEntityId(request.getEntityId()).orElseThrow(() -> new TodoNotFoundException(id));
+    public TodoResponse updateTodo(Long id, TodoRequest request, Long expectedVersion) {
+        todoChangeSequence.stampOnCommit();
+        Todo todo = todoRepository.findByNaturalId(id).orElseThrow(() -> new TodoNotFoundException(id));
+        if (expectedVersion != null && !expectedVersion.equals(todo.getVersion())) {
+            throw new TodoVersionMismatchException(id, expectedVersion);
+        }
 
         todoMapper.updateEntityFromRequest(request, todo);
 
-        Todo updatedTodo = todoRepository.save(todo);
-        return todoMapper.toResponse(updatedTodo);
+        // Flushed first so the response and the event carry the version and updated_at the UPDATE wrote
+        Todo updatedTodo = todoRepository.saveAndFlush(todo);
+        TodoResponse response = todoMapper.toResponse(updatedTodo);
+        eventPublisher.publishEvent(TodoEvent.updated(response));
+        return response;
     }
 
+    /**
+     * Applies the fields present in {@code patch} with a single UPDATE and returns the todo as committed by it. With
+     * an {@code expectedVersion}, the update only applies if the todo is still at that version.
+     */
     @Transactional
-    public TodoResponse toggleTodoCompleted(Long id) {
-        Todo todo = todoRepository.findByEntityId(id).orElseThrow(() -> new TodoNotFoundException(id));
+    public TodoResponse patchTodo(Long id, TodoPatchRequest patch, Long expectedVersion) {
+        todoChangeSequence.stampOnCommit();
+        if (todoRepository.applyPatch(id, patch, expectedVersion, OffsetDateTime.now(ZoneOffset.UTC)) == 0) {
+            if (expectedVersion != null && todoRepository.findIdByEntityId(id).isPresent()) {
+                throw new TodoVersionMismatchException(id, expectedVersion);
+            }
+            throw new TodoNotFoundException(id);
+        }
+        return findUpdatedResponse(id);
+    }
 
-        todo.setCompleted(!todo.getCompleted());
-        Todo updatedTodo = todoRepository.save(todo);
-        return todoMapper.toResponse(updatedTodo);
+    @Transactional
+    public TodoResponse toggleTodoCompleted(Long id) {
+        todoChangeSequence.stampOnCommit();
+        if (todoRepository.toggleCompleted(id, OffsetDateTime.now(ZoneOffset.UTC)) == 0) {
+            throw new TodoNotFoundException(id);
+        }
+        return findUpdatedResponse(id);
     }
 
     @Transactional
     public void deleteTodo(Long id) {
-        todoRepository.findByEntityId(id).orElseThrow(() -> new TodoNotFoundException(id));
-        todoRepository.deleteById(id);
+        todoChangeSequence.stampOnCommit();
+        Long todoId = todoRepository.findIdByEntityId(id).orElseThrow(() -> new TodoNotFoundException(id));
+        // The tombstone insert is only flushed at commit; a concurrent delete that won the row leaves nothing to
+        // delete here and the exception discards it
+        todoTombstoneRepository.save(new TodoTombstone(todoId, id));
+        if (todoRepository.deleteByEntityId(id) == 0) {
+            throw new TodoNotFoundException(id);
+        }
+        todoCacheEviction.evictDeletedOnCommit(todoId, id);
+        eventPublisher.publishEvent(TodoEvent.deleted(id));
+    }
+
+    /**
+     * Applies the request's changes to every todo matching its filter with a single UPDATE and returns how many
+     * todos it changed. The filter must set at least one criterion.
+     */
+    @Transactional
+    public TodoBulkResponse updateTodos(TodoBulkUpdateRequest request) {
+        todoChangeSequence.stampOnCommit();
+        requireCriteria(request.getFilter());
+        if (!request.hasChanges()) {
+            throw new InvalidRequestException("A bulk update must change completed, priority or assignedTo");
+        }
+        long updated = todoRepository.update(TodoSpecifications.applying(request, OffsetDateTime.now(ZoneOffset.UTC)));
+        if (updated > 0) {
+            eventPublisher.publishEvent(TodoEvent.resync());
+        }
+        return new TodoBulkResponse(updated);
+    }
+
+    /**
+     * Deletes every todo matching the filter and returns how many were deleted. The filter must set at least one
+     * criterion.
+     *
+     * <p>Matching rows are walked in id order in chunks of {@value #BULK_DELETE_CHUNK_SIZE}: each chunk is locked
+     * while its tombstones are selected, the tombstones are written and the rows deleted by id, and the persistence
+     * context is cleared before the next chunk, so memory stays bounded by one chunk however many rows match. Rows
+     * that start matching in the meantime are either picked up by a later chunk or left alone, never deleted without
+     * a tombstone.
+     */
+    @Transactional
+    public TodoBulkResponse deleteTodos(TodoFilter filter) {
+        todoChangeSequence.stampOnCommit();
+        requireCriteria(filter);
+        Specification<Todo> matching = TodoSpecifications.matching(filter);
+        long deleted = 0;
+        long lastId = 0;
+        List<TodoTombstone> chunk;
+        do {
+            chunk = todoRepository.findTombstonesForDelete(
+                    matching.and(TodoSpecifications.idAfter(lastId)), BULK_DELETE_CHUNK_SIZE);
+            if (chunk.isEmpty()) {
+                break;
+            }
+            lastId = chunk.getLast().getTodoId();
+            todoTombstoneRepository.saveAll(chunk);
+            deleted += todoRepository.deleteByIdIn(
+                    chunk.stream().map(TodoTombstone::getTodoId).toList());
+            todoTombstoneRepository.flush();
+            entityManager.clear();
+        } while (chunk.size() == BULK_DELETE_CHUNK_SIZE);
+        if (deleted > 0) {
+            eventPublisher.publishEvent(TodoEvent.resync());
+        }
+        return new TodoBulkResponse(deleted);
+    }
+
+    // Reads back a row this transaction has just updated; the row lock taken by the UPDATE is still held
+    private TodoResponse findUpdatedResponse(Long id) {
+        TodoResponse response =
+                todoRepository.findResponseByEntityId(id).orElseThrow(() -> new TodoNotFoundException(id));
+        todoCacheEviction.evictOnCommit(response.getId());
+        eventPublisher.publishEvent(TodoEvent.updated(response));
+        return response;
+    }
+
+    private void requireUser(Long userId) {
+        if (!userRepository.existsById(userId)) {
+            throw new UserNotFoundException(userId);
+        }
+    }
+
+    // An empty filter would match every todo; wiping or rewriting the whole list is never what a caller means
+    private static void requireCriteria(TodoFilter filter) {
+        if (!filter.hasCriteria()) {
+            throw new InvalidRequestException("A bulk operation needs at least one filter criterion");
+        }
+    }
+
+    private static Specification<Todo> pageSpecification(TodoFilter filter, String cursor) {
+        Specification<Todo> specification = TodoSpecifications.matching(filter);
+        if (cursor != null) {
+            specification = specification.and(TodoSpecifications.after(TodoCursor.decode(cursor)));
+        }
+        return specification;
+    }
+
+    static int clampPageSize(int limit) {
+        return Math.clamp(limit, 1, MAX_PAGE_SIZE);
+    }
+
+    /**
+     * Trims the one-row lookahead fetched by the listing query and derives the cursor for the following page from
+     * the last row that is actually returned.
+     */
+    static CursorPage<TodoResponse> toPage(List<TodoResponse> rows, int pageSize) {
+        boolean hasMore = rows.size() > pageSize;
+        List<TodoResponse> items = hasMore ? rows.subList(0, pageSize) : rows;
+        String nextCursor = null;
+        if (hasMore) {
+            TodoResponse last = items.getLast();
+            nextCursor = new TodoCursor(last.getUpdatedAt(), last.getId()).encode();
+        }
+        return new CursorPage<>(items, nextCursor, pageSize);
     }
 }
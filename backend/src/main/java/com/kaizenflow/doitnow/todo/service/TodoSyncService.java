@@ -0,0 +1,219 @@
+package com.kaizenflow.doitnow.todo.service;
+
+import com.kaizenflow.doitnow.common.metrics.ServiceMetrics;
+import com.kaizenflow.doitnow.todo.dto.TodoEvent;
+import com.kaizenflow.doitnow.todo.dto.TodoRequest;
+import com.kaizenflow.doitnow.todo.dto.TodoResponse;
+import com.kaizenflow.doitnow.todo.dto.TodoSyncOperation;
+import com.kaizenflow.doitnow.todo.dto.TodoSyncOperationType;
+import com.kaizenflow.doitnow.todo.dto.TodoSyncRequest;
+import com.kaizenflow.doitnow.todo.dto.TodoSyncResponse;
+import com.kaizenflow.doitnow.todo.dto.TodoSyncResult;
+import com.kaizenflow.doitnow.todo.dto.TodoSyncStatus;
+import com.kaizenflow.doitnow.todo.entity.Todo;
+import com.kaizenflow.doitnow.todo.entity.TodoTombstone;
+import com.kaizenflow.doitnow.todo.mapper.TodoMapper;
+import com.kaizenflow.doitnow.todo.repository.TodoArchiveRepository;
+import com.kaizenflow.doitnow.todo.repository.TodoChangeSequence;
+import com.kaizenflow.doitnow.todo.repository.TodoRepository;
+import com.kaizenflow.doitnow.todo.repository.TodoTombstoneRepository;
+import io.micrometer.core.annotation.Timed;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Applies a client's queued offline edits as a single batch.
+ *
+ * <p>Operations are applied in order against an in-memory view of the affected todos, which is loaded with one
+ * bulk lookup up front. Deletes and then inserts are handed to Hibernate at the end so they go out as JDBC
+ * batches, and the whole batch commits or rolls back as one transaction. A failing operation (unknown entity,
+ * invalid payload) is reported in its result and does not stop the rest of the batch.
+ *
+ * <p>Operations on an archived todo, creating one with its entity id included, are reported as {@code ARCHIVED}: the
+ * entity id stays reserved until the todo is restored, and the client should drop the operation rather than retry.
+ */
+@Service
+@RequiredArgsConstructor
+@Timed(value = ServiceMetrics.TIMER, description = ServiceMetrics.DESCRIPTION)
+public class TodoSyncService {
+
+    private final TodoRepository todoRepository;
+    private final TodoTombstoneRepository todoTombstoneRepository;
+    private final TodoArchiveRepository todoArchiveRepository;
+    private final TodoChangeSequence todoChangeSequence;
+    private final TodoMapper todoMapper;
+    private final Validator validator;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Transactional
+    public TodoSyncResponse applyBatch(TodoSyncRequest request) {
+        todoChangeSequence.stampOnCommit();
+        List<TodoSyncOperation> operations = request.getOperations();
+
+        Set<Long> entityIds =
+                operations.stream().map(TodoSyncOperation::getEntityId).collect(Collectors.toSet());
+        Map<Long, Todo> todos = new HashMap<>();
+        todoRepository.findByEntityIdIn(entityIds).forEach(todo -> todos.put(todo.getEntityId(), todo));
+        Set<Long> missing = new HashSet<>(entityIds);
+        missing.removeAll(todos.keySet());
+        Set<Long> archived = missing.isEmpty() ? Set.of() : todoArchiveRepository.findArchivedEntityIds(missing);
+
+        List<Todo> created = new ArrayList<>();
+        List<Todo> deleted = new ArrayList<>();
+        Set<Todo> removed = Collections.newSetFromMap(new IdentityHashMap<>());
+        List<Outcome> outcomes = new ArrayList<>(operations.size());
+
+        for (int i = 0; i < operations.size(); i++) {
+            TodoSyncOperation operation = operations.get(i);
+            Long entityId = operation.getEntityId();
+            Todo todo = todos.get(entityId);
+            if (archived.contains(entityId)) {
+                outcomes.add(new Outcome(
+                        i,
+                        operation,
+                        TodoSyncStatus.ARCHIVED,
+                        null,
+                        "Todo with entity ID " + entityId + " is archived; restore it to change it"));
+                continue;
+            }
+
+            switch (operation.getType()) {
+                case CREATE, UPDATE -> {
+                    String invalid = validatePayload(operation);
+                    if (invalid != null) {
+                        outcomes.add(new Outcome(i, operation, TodoSyncStatus.INVALID, null, invalid));
+                        continue;
+                    }
+                    if (todo == null && operation.getType() == TodoSyncOperationType.UPDATE) {
+                        outcomes.add(notFound(i, operation));
+                        continue;
+                    }
+                    if (todo == null) {
+                        todo = todoMapper.toEntity(operation.getPayload());
+                        todo.setEntityId(entityId);
+                        applyDefaults(todo);
+                        todos.put(entityId, todo);
+                        created.add(todo);
+                    } else {
+                        // A replayed CREATE for a todo the server already has behaves as an update
+                        todoMapper.updateEntityFromRequest(operation.getPayload(), todo);
+                        applyDefaults(todo);
+                    }
+                    outcomes.add(new Outcome(i, operation, TodoSyncStatus.APPLIED, todo, null));
+                }
+                case TOGGLE -> {
+                    if (todo == null) {
+                        outcomes.add(notFound(i, operation));
+                        continue;
+                    }
+                    todo.setCompleted(!todo.getCompleted());
+                    outcomes.add(new Outcome(i, operation, TodoSyncStatus.APPLIED, todo, null));
+                }
+                case DELETE -> {
+                    if (todo == null) {
+                        outcomes.add(notFound(i, operation));
+                        continue;
+                    }
+                    todos.remove(entityId);
+                    removed.add(todo);
+                    Todo removedTodo = todo;
+                    if (!created.removeIf(candidate -> candidate == removedTodo)) {
+                        deleted.add(todo);
+                    }
+                    outcomes.add(new Outcome(i, operation, TodoSyncStatus.APPLIED, null, null));
+                }
+            }
+        }
+
+        todoRepository.deleteAll(deleted);
+        todoTombstoneRepository.saveAll(deleted.stream().map(TodoTombstone::new).toList());
+        // Hibernate flushes inserts before deletes, so a todo deleted and created again under the same entity id
+        // would hit the unique index unless the delete goes out first
+        todoRepository.flush();
+        todoRepository.saveAll(created);
+        todoRepository.flush();
+
+        List<TodoSyncResult> results = new ArrayList<>(outcomes.size());
+        int applied = 0;
+        for (Outcome outcome : outcomes) {
+            // Responses reflect each todo's state at the end of the batch; todos deleted later in it have none
+            boolean removedLater = outcome.todo() != null && removed.contains(outcome.todo());
+            TodoResponse response =
+                    outcome.todo() == null || removedLater ? null : todoMapper.toResponse(outcome.todo());
+            if (outcome.status() == TodoSyncStatus.APPLIED) {
+                applied++;
+                publishEvent(outcome.operation(), response);
+            }
+            results.add(new TodoSyncResult(
+                    outcome.index(),
+                    outcome.operation().getEntityId(),
+                    outcome.operation().getType(),
+                    outcome.status(),
+                    response,
+                    outcome.message()));
+        }
+        return new TodoSyncResponse(applied, outcomes.size() - applied, results);
+    }
+
+    private void publishEvent(TodoSyncOperation operation, TodoResponse response) {
+        if (operation.getType() == TodoSyncOperationType.DELETE) {
+            eventPublisher.publishEvent(TodoEvent.deleted(operation.getEntityId()));
+        } else if (response != null) {
+            eventPublisher.publishEvent(
+                    operation.getType() == TodoSyncOperationType.CREATE
+                            ? TodoEvent.created(response)
+                            : TodoEvent.updated(response));
+        }
+    }
+
+    private String validatePayload(TodoSyncOperation operation) {
+        TodoRequest payload = operation.getPayload();
+        if (payload == null) {
+            return "Payload is required for CREATE and UPDATE operations";
+        }
+        if (payload.getEntityId() == null) {
+            payload.setEntityId(operation.getEntityId());
+        }
+        Set<ConstraintViolation<TodoRequest>> violations = validator.validate(payload);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining(", "));
+    }
+
+    private static void applyDefaults(Todo todo) {
+        if (todo.getCompleted() == null) {
+            todo.setCompleted(false);
+        }
+        if (todo.getPriority() == null) {
+            todo.setPriority("medium");
+        }
+    }
+
+    private static Outcome notFound(int index, TodoSyncOperation operation) {
+        return new Outcome(
+                index,
+                operation,
+                TodoSyncStatus.NOT_FOUND,
+                null,
+                "Todo not found with id: " + operation.getEntityId());
+    }
+
+    private record Outcome(int index, TodoSyncOperation operation, TodoSyncStatus status, Todo todo, String message) {}
+}
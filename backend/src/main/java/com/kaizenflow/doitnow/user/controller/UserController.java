@@ -1,5 +1,10 @@
 package com.kaizenflow.doitnow.user.controller;
 
+import com.kaizenflow.doitnow.common.dto.CursorPage;
+import com.kaizenflow.doitnow.todo.dto.TodoCountsResponse;
+import com.kaizenflow.doitnow.todo.dto.TodoFilter;
+import com.kaizenflow.doitnow.todo.dto.TodoResponse;
+import com.kaizenflow.doitnow.todo.service.TodoService;
 import com.kaizenflow.doitnow.user.dto.UserRequest;
 import com.kaizenflow.doitnow.user.dto.UserResponse;
 import com.kaizenflow.doitnow.user.service.UserService;
@@ -11,6 +16,7 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
+import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -23,6 +29,7 @@ import org.springframework.web.bind.annotation.*;
 public class UserController {
 
     private final UserService userService;
+    private final TodoService todoService;
 
     @Operation(summary = "Get all users", description = "Retrieves a list of all users in the system")
     @ApiResponses(value = {@ApiResponse(responseCode = "200", description = "Successfully retrieved list of users")})
@@ -42,6 +49,41 @@ public class UserController {
         return ResponseEntity.ok(userService.getUserById(id));
     }
 
+    @Operation(
+            summary = "Get a user's todos",
+            description = "Retrieves the user's todos one page at a time, most recently updated first. Accepts the"
+                    + " same filters as the todo listing except userId. Pass the returned nextCursor to fetch the"
+                    + " following page")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved todos"),
+        @ApiResponse(responseCode = "400", description = "Invalid filter or cursor"),
+        @ApiResponse(responseCode = "404", description = "User not found")
+    })
+    @GetMapping("/{id}/todos")
+    public ResponseEntity<CursorPage<TodoResponse>> getUserTodos(
+            @Parameter(description = "User ID", required = true) @PathVariable Long id,
+            @ParameterObject @Valid TodoFilter filter,
+            @Parameter(description = "Cursor returned by the previous page") @RequestParam(required = false)
+                    String cursor,
+            @Parameter(description = "Maximum number of todos per page (capped at 200)")
+                    @RequestParam(defaultValue = "50")
+                    int limit) {
+        return ResponseEntity.ok(todoService.getTodosForUser(id, filter, cursor, limit));
+    }
+
+    @Operation(
+            summary = "Count a user's todos",
+            description = "Counts the user's todos in total, completed, open and overdue (open and past due)")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully counted todos"),
+        @ApiResponse(responseCode = "404", description = "User not found")
+    })
+    @GetMapping("/{id}/todos/counts")
+    public ResponseEntity<TodoCountsResponse> getUserTodoCounts(
+            @Parameter(description = "User ID", required = true) @PathVariable Long id) {
+        return ResponseEntity.ok(todoService.getTodoCountsForUser(id));
+    }
+
     @GetMapping("/username/{username}")
     public ResponseEntity<UserResponse> getUserByUsername(@PathVariable String username) {
         return ResponseEntity.ok(userService.getUserByUsername(username));
@@ -14,11 +14,9 @@ public interface UserMapper {
 
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "createdAt", ignore = true)
-    @Mapping(target = "todos", ignore = true)
     User toEntity(UserRequest request);
 
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "createdAt", ignore = true)
-    @Mapping(target = "todos", ignore = true)
     void updateEntityFromRequest(UserRequest request, @MappingTarget User user);
 }
@@ -0,0 +1,13 @@
+package com.kaizenflow.doitnow.user.repository;
+
+import com.kaizenflow.doitnow.user.entity.User;
+import java.util.Optional;
+
+public interface UserNaturalIdRepository {
+
+    /**
+     * Loads a user by username through Hibernate's natural-id API, which consults the natural-id and entity caches
+     * before falling back to SQL.
+     */
+    Optional<User> findByNaturalId(String username);
+}
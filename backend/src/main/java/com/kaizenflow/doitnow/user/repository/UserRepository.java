@@ -1,13 +1,17 @@
 package com.kaizenflow.doitnow.user.repository;
 
 import com.kaizenflow.doitnow.user.entity.User;
+import jakarta.persistence.LockModeType;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, UserNaturalIdRepository {
 
     Optional<User> findByUsername(@Param("username") String username);
 
@@ -16,4 +20,17 @@ public interface UserRepository extends JpaRepository<User, Long> {
     boolean existsByUsername(String username);
 
     boolean existsByEmail(String email);
+
+    /**
+     * Locks the user's row until the transaction ends. Inserting a todo for the user has to take a key share lock on
+     * the same row for the foreign key check, so no todo can be added to the user while the lock is held.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT u.id FROM User u WHERE u.id = :id")
+    Optional<Long> lockIdById(@Param("id") Long id);
+
+    /** Deletes the user with one statement; the database deletes the user's todos through ON DELETE CASCADE. */
+    @Modifying
+    @Query("DELETE FROM User u WHERE u.id = :id")
+    int deleteWithTodosById(@Param("id") Long id);
 }
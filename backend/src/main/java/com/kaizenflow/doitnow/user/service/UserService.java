@@ -1,23 +1,36 @@
 package com.kaizenflow.doitnow.user.service;
 
+import com.kaizenflow.doitnow.common.exception.InvalidRequestException;
+import com.kaizenflow.doitnow.common.metrics.ServiceMetrics;
+import com.kaizenflow.doitnow.todo.dto.TodoEvent;
+import com.kaizenflow.doitnow.todo.repository.TodoCacheEviction;
+import com.kaizenflow.doitnow.todo.repository.TodoChangeSequence;
+import com.kaizenflow.doitnow.todo.repository.TodoTombstoneRepository;
 import com.kaizenflow.doitnow.user.dto.UserRequest;
 import com.kaizenflow.doitnow.user.dto.UserResponse;
 import com.kaizenflow.doitnow.user.entity.User;
 import com.kaizenflow.doitnow.user.exception.UserNotFoundException;
 import com.kaizenflow.doitnow.user.mapper.UserMapper;
 import com.kaizenflow.doitnow.user.repository.UserRepository;
+import io.micrometer.core.annotation.Timed;
 import java.util.List;
 import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 @Service
 @RequiredArgsConstructor
+@Timed(value = ServiceMetrics.TIMER, description = ServiceMetrics.DESCRIPTION)
 public class UserService {
 
     private final UserRepository userRepository;
     private final UserMapper userMapper;
+    private final TodoTombstoneRepository todoTombstoneRepository;
+    private final TodoChangeSequence todoChangeSequence;
+    private final TodoCacheEviction todoCacheEviction;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional(readOnly = true)
     public List<UserResponse> getAllUsers() {
@@ -32,24 +45,27 @@ public class UserService {
 
     @Transactional(readOnly = true)
     public UserResponse getUserByUsername(String username) {
-        User user =
-                userRepository.findByUsername(username).orElseThrow(() -> new UserNotFoundException("User not found with username: " + username));
+        User user = userRepository
+                .findByNaturalId(username)
+                .orElseThrow(() -> new UserNotFoundException("User not found with username: " + username));
         return userMapper.toResponse(user);
     }
 
     @Transactional(readOnly = true)
     public UserResponse getUserByEmail(String email) {
-        User user = userRepository.findByEmail(email).orElseThrow(() -> new UserNotFoundException("User not found with email: " + email));
+        User user = userRepository
+                .findByEmail(email)
+                .orElseThrow(() -> new UserNotFoundException("User not found with email: " + email));
         return userMapper.toResponse(user);
     }
 
     @Transactional
     public UserResponse createUser(UserRequest request) {
         if (userRepository.existsByUsername(request.getUsername())) {
-            throw new IllegalArgumentException("Username already exists: " + request.getUsername());
+            throw new InvalidRequestException("Username already exists: " + request.getUsername());
         }
         if (userRepository.existsByEmail(request.getEmail())) {
-            throw new IllegalArgumentException("Email already exists: " + request.getEmail());
+            throw new InvalidRequestException("Email already exists: " + request.getEmail());
         }
 
         User user = userMapper.toEntity(request);
@@ -61,11 +77,12 @@ public class UserService {
     public UserResponse updateUser(Long id, UserRequest request) {
         User user = userRepository.findById(id).orElseThrow(() -> new UserNotFoundException(id));
 
-        if (!user.getUsername().equals(request.getUsername()) && userRepository.existsByUsername(request.getUsername())) {
-            throw new IllegalArgumentException("Username already exists: " + request.getUsername());
+        if (!user.getUsername().equals(request.getUsername())
+                && userRepository.existsByUsername(request.getUsername())) {
+            throw new InvalidRequestException("Username already exists: " + request.getUsername());
         }
         if (!user.getEmail().equals(request.getEmail()) && userRepository.existsByEmail(request.getEmail())) {
-            throw new IllegalArgumentException("Email already exists: " + request.getEmail());
+            throw new InvalidRequestException("Email already exists: " + request.getEmail());
         }
 
         userMapper.updateEntityFromRequest(request, user);
@@ -74,9 +91,21 @@ public class UserService {
         return userMapper.toResponse(updatedUser);
     }
 
+    /**
+     * Deletes the user and, through the database cascade, all of its todos without loading either. The row lock
+     * keeps todos from being added to the user in between, so every deleted todo gets its tombstone.
+     */
     @Transactional
     public void deleteUser(Long id) {
-        User user = userRepository.findById(id).orElseThrow(() -> new UserNotFoundException(id));
-        userRepository.delete(user);
+        userRepository.lockIdById(id).orElseThrow(() -> new UserNotFoundException(id));
+        todoChangeSequence.stampOnCommit();
+        int deletedTodos = todoTombstoneRepository.insertForUserId(id);
+        userRepository.deleteWithTodosById(id);
+
+        if (deletedTodos > 0) {
+            // The cascade happens behind Hibernate's back, so cached copies of the deleted todos must go too
+            todoCacheEviction.evictAllOnCommit();
+            eventPublisher.publishEvent(TodoEvent.resync());
+        }
     }
 }
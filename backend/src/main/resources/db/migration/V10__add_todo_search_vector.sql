@@ -0,0 +1,12 @@
+-- ===========================
+-- Full-text search over todo titles and descriptions
+-- ===========================
+-- A stored generated column keeps the vector in step with every insert and update, including bulk statements,
+-- without a trigger; titles weigh more than descriptions when results are ranked
+ALTER TABLE todos
+ADD COLUMN search_vector tsvector GENERATED ALWAYS AS (
+    setweight(to_tsvector('english', coalesce(title, '')), 'A')
+        || setweight(to_tsvector('english', coalesce(description, '')), 'B')
+) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_todos_search_vector ON todos USING GIN (search_vector);
@@ -0,0 +1,10 @@
+-- ===========================
+-- Index backing the per-user todo listing
+-- ===========================
+-- GET /api/users/{id}/todos pages through a user's todos in listing order (updated_at DESC, id DESC) with no other
+-- filter; V8's (user_id, completed, ...) index only yields that order once completed is fixed as well.
+CREATE INDEX IF NOT EXISTS idx_todos_user_updated_at_id
+    ON todos (user_id, updated_at DESC, id DESC);
+
+-- Its user_id prefix serves every lookup the V3 index did, including the foreign key checks on user deletes
+DROP INDEX IF EXISTS idx_todos_user_id;
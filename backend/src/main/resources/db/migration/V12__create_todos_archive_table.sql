@@ -0,0 +1,30 @@
+-- ===========================
+-- Archive for old completed todos
+-- ===========================
+-- Completed todos untouched for doitnow.todos.archive.min-age are moved here in batches, so todos and its indexes
+-- only hold live work. Rows keep their todos id. Archived todos are read and restored through /api/todos/archive
+-- and are never scanned by the todo listings.
+CREATE TABLE IF NOT EXISTS todos_archive (
+    id BIGINT PRIMARY KEY,
+    entity_id BIGINT NOT NULL,
+    title TEXT NOT NULL,
+    description TEXT,
+    completed BOOLEAN NOT NULL,
+    priority TEXT NOT NULL,
+    due_date TIMESTAMPTZ,
+    assigned_to VARCHAR(255),
+    user_id INTEGER REFERENCES users (id) ON DELETE CASCADE,
+    created_at TIMESTAMPTZ NOT NULL,
+    updated_at TIMESTAMPTZ NOT NULL,
+    version BIGINT NOT NULL,
+    archived_at TIMESTAMPTZ NOT NULL DEFAULT NOW()
+);
+
+-- Archive listing, in the same (updated_at DESC, id DESC) order as the todo listings
+CREATE INDEX IF NOT EXISTS idx_todos_archive_updated_at_id ON todos_archive (updated_at DESC, id DESC);
+
+-- Single archived todo lookups and restores by entity id
+CREATE INDEX IF NOT EXISTS idx_todos_archive_entity_id ON todos_archive (entity_id);
+
+-- Deleting a user cascades here too
+CREATE INDEX IF NOT EXISTS idx_todos_archive_user_id ON todos_archive (user_id);
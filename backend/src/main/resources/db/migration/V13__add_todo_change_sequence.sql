@@ -0,0 +1,42 @@
+-- ===========================
+-- Commit-ordered change numbers for the changes feed
+-- ===========================
+-- The feed used to page by updated_at, which is stamped when a row is written rather than when it commits, so a
+-- slow transaction could commit behind a watermark a client already held. Every transaction that writes todos or
+-- tombstones now takes the next number from todo_change_counter just before it commits and stamps it on the rows it
+-- wrote, which it left at NULL. The counter row stays locked until the commit, so numbers are handed out in commit
+-- order and a reader that sees a number has already seen every smaller one.
+CREATE TABLE IF NOT EXISTS todo_change_counter (
+    id INTEGER PRIMARY KEY,
+    last_change BIGINT NOT NULL
+);
+
+ALTER TABLE todos ADD COLUMN change_seq BIGINT;
+ALTER TABLE todo_tombstones ADD COLUMN change_seq BIGINT;
+
+-- Existing rows keep the order the feed returned them in
+UPDATE todos t
+SET change_seq = numbered.change_seq
+FROM (SELECT id, ROW_NUMBER() OVER (ORDER BY updated_at, id) AS change_seq FROM todos) numbered
+WHERE t.id = numbered.id;
+
+UPDATE todo_tombstones t
+SET change_seq = numbered.change_seq
+FROM (SELECT id, ROW_NUMBER() OVER (ORDER BY deleted_at, id) AS change_seq FROM todo_tombstones) numbered
+WHERE t.id = numbered.id;
+
+INSERT INTO todo_change_counter (id, last_change)
+SELECT 1, GREATEST(
+    (SELECT COALESCE(MAX(change_seq), 0) FROM todos),
+    (SELECT COALESCE(MAX(change_seq), 0) FROM todo_tombstones));
+
+-- The feed reads both tables in (change_seq, id) order
+CREATE INDEX IF NOT EXISTS idx_todos_change_seq_id ON todos (change_seq, id);
+CREATE INDEX IF NOT EXISTS idx_todo_tombstones_change_seq_id ON todo_tombstones (change_seq, id);
+
+-- Only ever holds the rows of transactions that have not committed yet, so stamping them is a short index scan
+CREATE INDEX IF NOT EXISTS idx_todos_unstamped ON todos (id) WHERE change_seq IS NULL;
+CREATE INDEX IF NOT EXISTS idx_todo_tombstones_unstamped ON todo_tombstones (id) WHERE change_seq IS NULL;
+
+-- Only served the feed's old (deleted_at, id) order
+DROP INDEX IF EXISTS idx_todo_tombstones_deleted_at_id;
@@ -0,0 +1,9 @@
+-- ===========================
+-- Enforce the entity_id natural id
+-- ===========================
+-- entity_id is the todo's @NaturalId and is looked up as one, but the V8 index did not enforce it. The unique index
+-- replaces it and serves the same lookups. The migration fails if duplicates already exist; find them with
+-- SELECT entity_id FROM todos GROUP BY entity_id HAVING COUNT(*) > 1 and resolve them by hand first.
+CREATE UNIQUE INDEX IF NOT EXISTS uk_todos_entity_id ON todos (entity_id);
+
+DROP INDEX IF EXISTS idx_todos_entity_id;
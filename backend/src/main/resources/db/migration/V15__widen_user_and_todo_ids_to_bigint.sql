@@ -0,0 +1,16 @@
+-- ===========================
+-- 64-bit user and todo ids
+-- ===========================
+-- The ids started out as SERIAL, i.e. INTEGER columns drawing from INTEGER sequences. Since V7 the sequences move
+-- by 50, and set-based inserts outside Hibernate (the bulk import merge) call nextval once per row, so each such
+-- row uses up a whole block of 50 ids. An INTEGER sequence would run out after some 43 million imported rows.
+-- The ids, the columns that reference them and the sequences are widened to BIGINT, which the entities' Long ids
+-- already expect.
+ALTER TABLE users ALTER COLUMN id TYPE BIGINT;
+ALTER SEQUENCE users_id_seq AS BIGINT;
+
+ALTER TABLE todos ALTER COLUMN id TYPE BIGINT;
+ALTER TABLE todos ALTER COLUMN user_id TYPE BIGINT;
+ALTER SEQUENCE todos_id_seq AS BIGINT;
+
+ALTER TABLE todo_tombstones ALTER COLUMN todo_id TYPE BIGINT;
@@ -0,0 +1,8 @@
+-- ===========================
+-- 64-bit tombstone ids
+-- ===========================
+-- Deleting a user writes a tombstone for each of its todos with one INSERT ... SELECT that calls nextval per row,
+-- and the sequence moves by 50 since V7, so each of those tombstones uses up a whole block of ids. The id column
+-- and its sequence are widened from SERIAL's INTEGER to BIGINT, like the user and todo ids in V15.
+ALTER TABLE todo_tombstones ALTER COLUMN id TYPE BIGINT;
+ALTER SEQUENCE todo_tombstones_id_seq AS BIGINT;
@@ -0,0 +1,6 @@
+-- ===========================
+-- 64-bit user ids in the archive
+-- ===========================
+-- Archival copies todos.user_id into todos_archive, and restores copy it back. V15 widened the todos column to
+-- BIGINT, so the archive's copy is widened too, or archiving a todo of a user beyond the INTEGER range would fail.
+ALTER TABLE todos_archive ALTER COLUMN user_id TYPE BIGINT;
@@ -0,0 +1,10 @@
+-- ===========================
+-- Indexes backing keyset pagination of todos
+-- ===========================
+-- Pages are ordered by (updated_at DESC, id DESC) and seek past the last row of the previous page,
+-- so each listing variant needs an index whose trailing columns match that order.
+CREATE INDEX IF NOT EXISTS idx_todos_updated_at_id ON todos (updated_at DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_todos_completed_updated_at_id ON todos (completed, updated_at DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_todos_priority_updated_at_id ON todos (priority, updated_at DESC, id DESC);
@@ -0,0 +1,13 @@
+-- ===========================
+-- Tombstones for deleted todos
+-- ===========================
+-- Read by the changes feed so clients syncing from a watermark learn about deletions.
+-- Changed todos are read through idx_todos_updated_at_id (V5), scanned in ascending order.
+CREATE TABLE IF NOT EXISTS todo_tombstones (
+    id SERIAL PRIMARY KEY,
+    todo_id INTEGER NOT NULL,
+    entity_id BIGINT NOT NULL,
+    deleted_at TIMESTAMPTZ NOT NULL DEFAULT NOW()
+);
+
+CREATE INDEX IF NOT EXISTS idx_todo_tombstones_deleted_at_id ON todo_tombstones (deleted_at, id);
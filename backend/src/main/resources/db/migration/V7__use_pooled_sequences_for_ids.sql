@@ -0,0 +1,16 @@
+-- ===========================
+-- Pooled sequence allocation for primary keys
+-- ===========================
+-- IDENTITY ids force Hibernate to insert rows one at a time to read back each generated key, which disables JDBC
+-- insert batching. The entities now draw ids from these sequences with a pooled optimizer and an allocation size
+-- of 50, so a single nextval reserves a block of 50 ids in memory. The sequence increment must match that
+-- allocation size. Column defaults still use nextval, so rows inserted outside Hibernate get ids that cannot clash
+-- with a block already handed out.
+ALTER SEQUENCE todos_id_seq INCREMENT BY 50;
+SELECT setval('todos_id_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM todos));
+
+ALTER SEQUENCE users_id_seq INCREMENT BY 50;
+SELECT setval('users_id_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM users));
+
+ALTER SEQUENCE todo_tombstones_id_seq INCREMENT BY 50;
+SELECT setval('todo_tombstones_id_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM todo_tombstones));
@@ -0,0 +1,32 @@
+-- ===========================
+-- Indexes backing the combined todo filters
+-- ===========================
+-- Listings filter on any mix of completed, priority, assigned_to, user_id and a due date range and are ordered by
+-- (updated_at DESC, id DESC). The composite indexes below serve the common combinations with the equality columns
+-- first, so a page is read straight off the index in listing order.
+
+-- entity_id is looked up on every single-todo operation, but the V1 index intended for it reused the name
+-- idx_todos_completed and was skipped by IF NOT EXISTS.
+CREATE INDEX IF NOT EXISTS idx_todos_entity_id ON todos (entity_id);
+
+-- A user's todos, optionally narrowed to open or done
+CREATE INDEX IF NOT EXISTS idx_todos_user_completed_updated_at_id
+    ON todos (user_id, completed, updated_at DESC, id DESC);
+
+-- Work assigned to someone, optionally narrowed to open or done; unassigned rows are never searched by assignee
+CREATE INDEX IF NOT EXISTS idx_todos_assigned_to_completed_updated_at_id
+    ON todos (assigned_to, completed, updated_at DESC, id DESC)
+    WHERE assigned_to IS NOT NULL;
+
+-- Open or done todos of a given priority
+CREATE INDEX IF NOT EXISTS idx_todos_completed_priority_updated_at_id
+    ON todos (completed, priority, updated_at DESC, id DESC);
+
+-- Upcoming open work by due date
+CREATE INDEX IF NOT EXISTS idx_todos_open_due_date
+    ON todos (due_date)
+    WHERE completed = FALSE AND due_date IS NOT NULL;
+
+-- Superseded by the composite indexes above and by idx_todos_completed_updated_at_id (V5)
+DROP INDEX IF EXISTS idx_todos_completed;
+DROP INDEX IF EXISTS idx_todos_assigned_to;
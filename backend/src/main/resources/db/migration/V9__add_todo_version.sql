@@ -0,0 +1,6 @@
+-- ===========================
+-- Optimistic-lock version for todos
+-- ===========================
+-- Incremented on every write. Serves as the todo's ETag and lets PUT/PATCH reject writes based on a stale read
+-- (If-Match); existing rows start at 0.
+ALTER TABLE todos ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
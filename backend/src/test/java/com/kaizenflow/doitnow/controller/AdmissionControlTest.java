@@ -0,0 +1,119 @@
+package com.kaizenflow.doitnow.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+@SpringBootTest(
+        properties = {
+            "doitnow.admission.enabled=true",
+            "doitnow.admission.client-ids-per-address=2",
+            "doitnow.admission.reads.capacity=3",
+            "doitnow.admission.reads.tokens-per-second=0.1",
+            "doitnow.admission.writes.capacity=1",
+            "doitnow.admission.writes.tokens-per-second=0.1"
+        })
+@AutoConfigureMockMvc
+class AdmissionControlTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void readsBeyondTheBudgetAreRefusedPerClient() throws Exception {
+        double rejectedBefore = rejectedReads();
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(get("/api/todos").with(from("10.0.0.1")).header("X-Client-Id", "greedy"))
+                    .andExpect(status().isOk());
+        }
+
+        mockMvc.perform(get("/api/todos").with(from("10.0.0.1")).header("X-Client-Id", "greedy"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "10"))
+                .andExpect(jsonPath("$.status").value(429));
+
+        mockMvc.perform(get("/api/todos").with(from("10.0.0.1")).header("X-Client-Id", "polite"))
+                .andExpect(status().isOk());
+        assertThat(rejectedReads() - rejectedBefore).isEqualTo(1);
+    }
+
+    @Test
+    void rotatingClientIdsStaysWithinTheAddressBudget() throws Exception {
+        // Two ids of three reads each use up the address's budget of twice that
+        for (String clientId : new String[] {"first", "second"}) {
+            for (int i = 0; i < 3; i++) {
+                mockMvc.perform(get("/api/todos").with(from("10.0.0.2")).header("X-Client-Id", clientId))
+                        .andExpect(status().isOk());
+            }
+        }
+
+        mockMvc.perform(get("/api/todos").with(from("10.0.0.2")).header("X-Client-Id", "third"))
+                .andExpect(status().isTooManyRequests());
+        mockMvc.perform(get("/api/todos").with(from("10.0.0.2"))).andExpect(status().isTooManyRequests());
+        mockMvc.perform(get("/api/todos").with(from("10.0.0.3")).header("X-Client-Id", "third"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void writesHaveTheirOwnBudget() throws Exception {
+        String todo = "{\"entityId\": 900, \"title\": \"Admitted\"}";
+        mockMvc.perform(post("/api/todos")
+                        .with(from("10.0.0.4"))
+                        .header("X-Client-Id", "writer")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(todo))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(post("/api/todos")
+                        .with(from("10.0.0.4"))
+                        .header("X-Client-Id", "writer")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(todo))
+                .andExpect(status().isTooManyRequests());
+        mockMvc.perform(get("/api/todos").with(from("10.0.0.4")).header("X-Client-Id", "writer"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void archivalRunsAndImportsDrawOnTheWriteBudget() throws Exception {
+        mockMvc.perform(post("/api/todos/archive/run").with(from("10.0.0.5"))).andExpect(status().isOk());
+
+        mockMvc.perform(post("/api/todos/archive/run").with(from("10.0.0.5"))).andExpect(status().isTooManyRequests());
+        mockMvc.perform(post("/api/import/todos")
+                        .with(from("10.0.0.5"))
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content("{\"entityId\": 901, \"title\": \"Imported\"}\n"))
+                .andExpect(status().isTooManyRequests());
+    }
+
+    private double rejectedReads() {
+        return meterRegistry
+                .get("doitnow.admission.rejected")
+                .tag("kind", "read")
+                .counter()
+                .count();
+    }
+
+    private static RequestPostProcessor from(String address) {
+        return request -> {
+            request.setRemoteAddr(address);
+            return request;
+        };
+    }
+}
@@ -0,0 +1,144 @@
+package com.kaizenflow.doitnow.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.kaizenflow.doitnow.todo.dto.TodoRequest;
+import com.kaizenflow.doitnow.todo.entity.Todo;
+import com.kaizenflow.doitnow.todo.repository.TodoRepository;
+import com.kaizenflow.doitnow.todo.service.TodoService;
+import com.kaizenflow.doitnow.user.dto.UserRequest;
+import com.kaizenflow.doitnow.user.repository.UserRepository;
+import com.kaizenflow.doitnow.user.service.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ImportControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TodoService todoService;
+
+    @Autowired
+    private TodoRepository todoRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        todoRepository.deleteAll();
+        userRepository.deleteAll();
+        UserRequest user = new UserRequest();
+        user.setUsername("existing");
+        user.setEmail("existing@example.com");
+        userService.createUser(user);
+        TodoRequest todo = new TodoRequest();
+        todo.setEntityId(1L);
+        todo.setTitle("Existing todo");
+        todoService.createTodo(todo);
+    }
+
+    @Test
+    void importUsers_fromCsv_rejectsInvalidAndDuplicateRows() throws Exception {
+        String csv = """
+                username,email
+                alice,alice@example.com
+                existing,other@example.com
+                bob,existing@example.com
+                carol,carol@example.com
+                alice,alice2@example.com
+                dave,not-an-email
+                "erin, jr",erin@example.com
+                """;
+
+        mockMvc.perform(post("/api/import/users").contentType("text/csv").content(csv))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.received").value(7))
+                .andExpect(jsonPath("$.imported").value(3))
+                .andExpect(jsonPath("$.rejected").value(4))
+                .andExpect(jsonPath("$.rejections[0].row").value(2))
+                .andExpect(jsonPath("$.rejections[0].reason").value("Username already exists"))
+                .andExpect(jsonPath("$.rejections[1].reason").value("Email already exists"))
+                .andExpect(jsonPath("$.rejections[2].reason").value("Duplicate username in import"))
+                .andExpect(jsonPath("$.rejections[3].row").value(6))
+                .andExpect(jsonPath("$.rejections[3].reason").value("Email must be valid"));
+
+        assertThat(userRepository.findByUsername("alice").orElseThrow().getEmail())
+                .isEqualTo("alice@example.com");
+        assertThat(userRepository.findByUsername("erin, jr")).isPresent();
+        assertThat(userRepository.count()).isEqualTo(4);
+    }
+
+    @Test
+    void importTodos_fromNdjson_assignsOwnersAndRejectsDuplicates() throws Exception {
+        String ndjson = """
+                {"entityId": 10, "title": "Owned", "owner": "existing", "priority": "high", "completed": true}
+                {"entityId": 11, "title": "Unowned", "dueDate": "2030-01-01T09:00:00Z"}
+                {"entityId": 1, "title": "Clashes with an existing todo"}
+                {"entityId": 10, "title": "Repeats an entity ID"}
+                {"entityId": 12, "title": "Owned by nobody", "owner": "ghost"}
+                {"entityId": "twelve", "title": "Unreadable"}
+                {"entityId": 13, "title": ""}
+                {"entityId": 14, "title": "After the bad rows"}
+                """;
+
+        mockMvc.perform(post("/api/import/todos")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(ndjson))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.received").value(8))
+                .andExpect(jsonPath("$.imported").value(3))
+                .andExpect(jsonPath("$.rejected").value(5))
+                .andExpect(jsonPath("$.rejections[0].reason").value("Todo already exists"))
+                .andExpect(jsonPath("$.rejections[1].reason").value("Duplicate entity ID in import"))
+                .andExpect(jsonPath("$.rejections[2].reason").value("Unknown owner"))
+                .andExpect(jsonPath("$.rejections[3].row").value(6))
+                .andExpect(jsonPath("$.rejections[4].reason").value("Title is required"));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Todo owned = todoRepository.findByEntityId(10L).orElseThrow();
+            assertThat(owned.getUser().getUsername()).isEqualTo("existing");
+            assertThat(owned.getCompleted()).isTrue();
+            assertThat(owned.getPriority()).isEqualTo("high");
+            Todo unowned = todoRepository.findByEntityId(11L).orElseThrow();
+            assertThat(unowned.getUser()).isNull();
+            assertThat(unowned.getPriority()).isEqualTo("medium");
+            assertThat(unowned.getVersion()).isZero();
+        });
+        assertThat(todoRepository.count()).isEqualTo(4);
+    }
+
+    @Test
+    void importTodos_rejectsMalformedInputWithoutImportingAnything() throws Exception {
+        String ndjson = """
+                {"entityId": 20, "title": "Fine"}
+                {"entityId": 21, "title":
+                """;
+
+        mockMvc.perform(post("/api/import/todos")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(ndjson))
+                .andExpect(status().isBadRequest());
+
+        assertThat(todoRepository.count()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,132 @@
+package com.kaizenflow.doitnow.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.kaizenflow.doitnow.common.datasource.ReadWriteRoutingDataSource;
+import com.kaizenflow.doitnow.todo.entity.Todo;
+import com.kaizenflow.doitnow.todo.repository.TodoRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManagerFactory;
+import java.sql.Connection;
+import java.time.Duration;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// The "replica" is a second pool on the test database, so routing can be observed without replication
+@SpringBootTest(
+        properties = {
+            "doitnow.datasource.replica.url=jdbc:h2:mem:testdb;DB_CLOSE_DELAY=-1;MODE=PostgreSQL",
+            "doitnow.datasource.replica.read-your-writes-window=1h"
+        })
+@AutoConfigureMockMvc
+class ReadReplicaRoutingTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private TodoRepository todoRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private ReadWriteRoutingDataSource routing;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        todoRepository.deleteAll();
+        routing = dataSource.unwrap(ReadWriteRoutingDataSource.class);
+    }
+
+    @Test
+    void readOnlyTransactionsGoToTheReplicaAndWritesToThePrimary() throws Exception {
+        long replicaBefore = routing.getReplicaConnections();
+        long primaryBefore = routing.getPrimaryConnections();
+
+        mockMvc.perform(get("/api/todos").header("X-Client-Id", "reader")).andExpect(status().isOk());
+        assertThat(routing.getReplicaConnections()).isEqualTo(replicaBefore + 1);
+
+        mockMvc.perform(post("/api/todos")
+                        .header("X-Client-Id", "writer")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"entityId\": 1, \"title\": \"Written\"}"))
+                .andExpect(status().isCreated());
+        assertThat(routing.getReplicaConnections()).isEqualTo(replicaBefore + 1);
+        assertThat(routing.getPrimaryConnections()).isGreaterThan(primaryBefore);
+    }
+
+    @Test
+    void clientsReadTheirOwnWritesFromThePrimary() throws Exception {
+        mockMvc.perform(post("/api/todos")
+                        .header("X-Client-Id", "writer")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"entityId\": 2, \"title\": \"Written\"}"))
+                .andExpect(status().isCreated());
+        long replicaBefore = routing.getReplicaConnections();
+
+        mockMvc.perform(get("/api/todos").header("X-Client-Id", "writer")).andExpect(status().isOk());
+        assertThat(routing.getReplicaConnections()).isEqualTo(replicaBefore);
+
+        mockMvc.perform(get("/api/todos").header("X-Client-Id", "someone-else")).andExpect(status().isOk());
+        assertThat(routing.getReplicaConnections()).isEqualTo(replicaBefore + 1);
+    }
+
+    @Test
+    void replicaReadsDoNotPopulateTheSecondLevelCache() throws Exception {
+        mockMvc.perform(post("/api/todos")
+                        .header("X-Client-Id", "writer")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"entityId\": 3, \"title\": \"Written\"}"))
+                .andExpect(status().isCreated());
+        Long id = todoRepository.findByNaturalId(3L).orElseThrow().getId();
+        entityManagerFactory.getCache().evictAll();
+        long replicaBefore = routing.getReplicaConnections();
+
+        mockMvc.perform(get("/api/todos/{id}", 3).header("X-Client-Id", "reader")).andExpect(status().isOk());
+
+        assertThat(routing.getReplicaConnections()).isEqualTo(replicaBefore + 1);
+        assertThat(entityManagerFactory.getCache().contains(Todo.class, id)).isFalse();
+    }
+
+    @Test
+    void readsFallBackToThePrimaryWhileTheReplicaIsDown() throws Exception {
+        HikariDataSource primary = dataSource.unwrap(HikariDataSource.class);
+        HikariDataSource missingReplica = new HikariDataSource();
+        missingReplica.setJdbcUrl("jdbc:h2:mem:missing;IFEXISTS=TRUE");
+        missingReplica.setConnectionTimeout(250);
+        missingReplica.setInitializationFailTimeout(-1);
+        ReadWriteRoutingDataSource fallingBack =
+                new ReadWriteRoutingDataSource(primary, missingReplica, Duration.ofMinutes(1));
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        try {
+            try (Connection connection = fallingBack.getConnection()) {
+                assertThat(connection.isValid(1)).isTrue();
+            }
+            try (Connection connection = fallingBack.getConnection()) {
+                assertThat(connection.isValid(1)).isTrue();
+            }
+        } finally {
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+            missingReplica.close();
+        }
+
+        // The second read skipped the replica instead of waiting for it again
+        assertThat(fallingBack.getReplicaFallbacks()).isEqualTo(1);
+        assertThat(fallingBack.getPrimaryConnections()).isEqualTo(2);
+        assertThat(fallingBack.getReplicaConnections()).isZero();
+    }
+}
@@ -0,0 +1,216 @@
+package com.kaizenflow.doitnow.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.kaizenflow.doitnow.common.exception.InvalidRequestException;
+import com.kaizenflow.doitnow.todo.dto.TodoChangesResponse;
+import com.kaizenflow.doitnow.todo.dto.TodoRequest;
+import com.kaizenflow.doitnow.todo.dto.TodoResponse;
+import com.kaizenflow.doitnow.todo.dto.TodoTombstoneResponse;
+import com.kaizenflow.doitnow.todo.entity.Todo;
+import com.kaizenflow.doitnow.todo.repository.TodoRepository;
+import com.kaizenflow.doitnow.todo.service.TodoService;
+import jakarta.persistence.EntityManagerFactory;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+// A batch size of one makes every run go through several batches
+@SpringBootTest(properties = "doitnow.todos.archive.batch-size=1")
+@AutoConfigureMockMvc
+class TodoArchiveControllerTest {
+
+    private static final String CUTOFF = OffsetDateTime.now(ZoneOffset.UTC).minusDays(1).toString();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TodoService todoService;
+
+    @Autowired
+    private TodoRepository todoRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    // Todo ids by entity id
+    private final Map<Long, Long> ids = new HashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM todos_archive");
+        todoRepository.deleteAll();
+        for (long i = 1; i <= 5; i++) {
+            TodoRequest request = new TodoRequest();
+            request.setEntityId(i);
+            request.setTitle("Todo " + i);
+            request.setCompleted(i <= 3);
+            ids.put(i, todoService.createTodo(request).getId());
+        }
+        // Todos 1 and 2 are old and completed, 3 is completed but recent, 4 is old but still open
+        jdbcTemplate.update(
+                "UPDATE todos SET updated_at = ? WHERE entity_id IN (1, 2, 4)",
+                OffsetDateTime.now(ZoneOffset.UTC).minusYears(1));
+    }
+
+    // Archived entity ids are reserved, and other tests reuse them
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM todos_archive");
+    }
+
+    @Test
+    void run_movesOnlyOldCompletedTodosToTheArchive() throws Exception {
+        mockMvc.perform(post("/api/todos/archive/run").param("before", CUTOFF))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.affected").value(2));
+
+        mockMvc.perform(get("/api/todos"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(3));
+        mockMvc.perform(get("/api/todos/{id}", 1)).andExpect(status().isNotFound());
+
+        mockMvc.perform(get("/api/todos/archive"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(2));
+        mockMvc.perform(get("/api/todos/archive/{id}", 1))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("Todo 1"))
+                .andExpect(jsonPath("$.completed").value(true));
+        mockMvc.perform(get("/api/todos/archive/{id}", 3)).andExpect(status().isNotFound());
+
+        // Nothing is left to move on a second run
+        mockMvc.perform(post("/api/todos/archive/run").param("before", CUTOFF))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.affected").value(0));
+    }
+
+    @Test
+    void getArchivedTodos_pagesWithCursor() throws Exception {
+        mockMvc.perform(post("/api/todos/archive/run").param("before", CUTOFF)).andExpect(status().isOk());
+
+        String cursor = mockMvc.perform(get("/api/todos/archive").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.nextCursor").isNotEmpty())
+                .andReturn()
+                .getResponse()
+                .getContentAsString()
+                .replaceAll(".*\"nextCursor\":\"([^\"]+)\".*", "$1");
+
+        mockMvc.perform(get("/api/todos/archive").param("limit", "1").param("cursor", cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    void restore_movesTheTodoBackAsAChange() throws Exception {
+        mockMvc.perform(post("/api/todos/archive/run").param("before", CUTOFF)).andExpect(status().isOk());
+
+        mockMvc.perform(post("/api/todos/archive/{id}/restore", 1))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.entityId").value(1))
+                .andExpect(jsonPath("$.version").value(1));
+
+        mockMvc.perform(get("/api/todos/{id}", 1)).andExpect(status().isOk());
+        mockMvc.perform(get("/api/todos/archive/{id}", 1)).andExpect(status().isNotFound());
+        mockMvc.perform(post("/api/todos/archive/{id}/restore", 1)).andExpect(status().isNotFound());
+    }
+
+    @Test
+    void run_tellsClientsToDropArchivedTodosThroughTheChangesFeed() throws Exception {
+        String watermark = currentWatermark();
+
+        mockMvc.perform(post("/api/todos/archive/run").param("before", CUTOFF)).andExpect(status().isOk());
+
+        TodoChangesResponse changes = todoService.getChangesSince(watermark, 100);
+        assertThat(changes.getChanged()).isEmpty();
+        assertThat(changes.getDeleted())
+                .extracting(TodoTombstoneResponse::getEntityId)
+                .containsExactlyInAnyOrder(1L, 2L);
+    }
+
+    @Test
+    void restore_bringsTheTodoBackAfterItsArchivalTombstone() throws Exception {
+        String watermark = currentWatermark();
+        mockMvc.perform(post("/api/todos/archive/run").param("before", CUTOFF)).andExpect(status().isOk());
+
+        mockMvc.perform(post("/api/todos/archive/{id}/restore", 1)).andExpect(status().isOk());
+
+        // Clients apply the tombstones first, so the restored todo is what they are left with
+        TodoChangesResponse changes = todoService.getChangesSince(watermark, 100);
+        assertThat(changes.getDeleted())
+                .extracting(TodoTombstoneResponse::getEntityId)
+                .containsExactlyInAnyOrder(1L, 2L);
+        assertThat(changes.getChanged()).extracting(TodoResponse::getEntityId).containsExactly(1L);
+    }
+
+    @Test
+    void run_evictsOnlyTheArchivedTodosFromTheCache() throws Exception {
+        mockMvc.perform(get("/api/todos/{id}", 1)).andExpect(status().isOk());
+        mockMvc.perform(get("/api/todos/{id}", 5)).andExpect(status().isOk());
+
+        mockMvc.perform(post("/api/todos/archive/run").param("before", CUTOFF)).andExpect(status().isOk());
+
+        assertThat(entityManagerFactory.getCache().contains(Todo.class, ids.get(1L))).isFalse();
+        assertThat(entityManagerFactory.getCache().contains(Todo.class, ids.get(5L))).isTrue();
+    }
+
+    @Test
+    void archivedEntityIdsCannotBeTakenByNewTodos() throws Exception {
+        mockMvc.perform(post("/api/todos/archive/run").param("before", CUTOFF)).andExpect(status().isOk());
+        TodoRequest request = new TodoRequest();
+        request.setEntityId(1L);
+        request.setTitle("Replacement");
+
+        assertThatThrownBy(() -> todoService.createTodo(request)).isInstanceOf(InvalidRequestException.class);
+        mockMvc.perform(post("/api/todos/sync")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"operations": [
+                                  {"type": "CREATE", "entityId": 1, "payload": {"title": "Replacement"}},
+                                  {"type": "TOGGLE", "entityId": 2}
+                                ]}"""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.applied").value(0))
+                .andExpect(jsonPath("$.results[0].status").value("ARCHIVED"))
+                .andExpect(jsonPath("$.results[1].status").value("ARCHIVED"));
+        mockMvc.perform(post("/api/import/todos")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content("{\"entityId\": 1, \"title\": \"Replacement\"}\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(0))
+                .andExpect(jsonPath("$.rejections[0].reason").value("Todo is archived"));
+
+        mockMvc.perform(get("/api/todos/{id}", 1)).andExpect(status().isNotFound());
+        mockMvc.perform(post("/api/todos/archive/{id}/restore", 1)).andExpect(status().isOk());
+    }
+
+    private String currentWatermark() {
+        TodoChangesResponse changes = todoService.getChangesSince(null, 1000);
+        while (changes.isHasMore()) {
+            changes = todoService.getChangesSince(changes.getWatermark(), 1000);
+        }
+        return changes.getWatermark();
+    }
+}
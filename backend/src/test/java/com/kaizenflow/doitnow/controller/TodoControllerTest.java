@@ -0,0 +1,341 @@
+package com.kaizenflow.doitnow.controller;
+
+import static com.kaizenflow.doitnow.support.SqlStatementResultMatchers.CHANGE_STAMPING_STATEMENTS;
+import static com.kaizenflow.doitnow.support.SqlStatementResultMatchers.sqlStatements;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.kaizenflow.doitnow.todo.dto.TodoRequest;
+import com.kaizenflow.doitnow.todo.repository.TodoRepository;
+import com.kaizenflow.doitnow.todo.repository.TodoTombstoneRepository;
+import com.kaizenflow.doitnow.todo.service.TodoService;
+import java.time.Duration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.dataformat.cbor.CBORMapper;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class TodoControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TodoService todoService;
+
+    @Autowired
+    private TodoRepository todoRepository;
+
+    @Autowired
+    private TodoTombstoneRepository todoTombstoneRepository;
+
+    @BeforeEach
+    void setUp() {
+        todoRepository.deleteAll();
+        todoTombstoneRepository.deleteAll();
+        for (long i = 1; i <= 30; i++) {
+            TodoRequest request = new TodoRequest();
+            request.setEntityId(i);
+            request.setTitle("Todo " + i);
+            todoService.createTodo(request);
+        }
+    }
+
+    @Test
+    void getAllTodos_issuesOneQueryPerPage() throws Exception {
+        mockMvc.perform(get("/api/todos").param("limit", "20"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(20))
+                .andExpect(sqlStatements().count(1));
+    }
+
+    @Test
+    void getTodoById_issuesAtMostTwoQueries() throws Exception {
+        mockMvc.perform(get("/api/todos/{id}", 7))
+                .andExpect(status().isOk())
+                .andExpect(sqlStatements().atMost(2));
+    }
+
+    @Test
+    void toggleTodo_updatesAndReadsBackOnce() throws Exception {
+        mockMvc.perform(patch("/api/todos/{id}/toggle", 7))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.completed").value(true))
+                .andExpect(sqlStatements().count(2 + CHANGE_STAMPING_STATEMENTS));
+    }
+
+    @Test
+    void deleteTodo_deletesWithoutLoadingTheTodo() throws Exception {
+        // id lookup, delete, tombstone insert, plus a sequence call when a new block of tombstone ids is needed
+        mockMvc.perform(delete("/api/todos/{id}", 7))
+                .andExpect(status().isNoContent())
+                .andExpect(sqlStatements().atMost(4 + CHANGE_STAMPING_STATEMENTS))
+                .andExpect(sqlStatements().noRepeats());
+    }
+
+    @Test
+    void syncTodos_issuesConstantQueriesRegardlessOfBatchSize() throws Exception {
+        StringBuilder operations = new StringBuilder();
+        for (long i = 101; i <= 200; i++) {
+            if (!operations.isEmpty()) {
+                operations.append(',');
+            }
+            operations
+                    .append("{\"type\":\"CREATE\",\"entityId\":")
+                    .append(i)
+                    .append(",\"payload\":{\"entityId\":")
+                    .append(i)
+                    .append(",\"title\":\"Synced ")
+                    .append(i)
+                    .append("\"}}");
+        }
+
+        mockMvc.perform(post("/api/todos/sync")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"operations\":[" + operations + "]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.applied").value(100))
+                // One more for the archive lookup of the entity ids that are not live todos
+                .andExpect(sqlStatements().atMost(7 + CHANGE_STAMPING_STATEMENTS));
+    }
+
+    @Test
+    void bulkUpdate_changesAllMatchingTodosInOneStatement() throws Exception {
+        mockMvc.perform(post("/api/todos/bulk-update")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"filter\":{\"entityIds\":[1,2,3,4,5]},\"completed\":true,\"assignedTo\":\"sam\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.affected").value(5))
+                .andExpect(sqlStatements().count(1 + CHANGE_STAMPING_STATEMENTS));
+
+        mockMvc.perform(get("/api/todos").param("assignedTo", "sam").param("completed", "true"))
+                .andExpect(jsonPath("$.items.length()").value(5));
+    }
+
+    @Test
+    void bulkDelete_issuesConstantQueriesRegardlessOfMatches() throws Exception {
+        // tombstone select, tombstone insert batch, delete, plus sequence calls for the tombstone ids
+        mockMvc.perform(post("/api/todos/bulk-delete")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"completed\":false}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.affected").value(30))
+                .andExpect(sqlStatements().atMost(5 + CHANGE_STAMPING_STATEMENTS));
+
+        mockMvc.perform(get("/api/todos/changes"))
+                .andExpect(jsonPath("$.deleted.length()").value(30));
+    }
+
+    @Test
+    void bulkOperations_rejectEmptyFilter() throws Exception {
+        mockMvc.perform(post("/api/todos/bulk-delete")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/api/todos/bulk-update")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"filter\":{},\"completed\":true}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void searchTodos_pagesThroughMatchesWithTwoQueriesPerPage() throws Exception {
+        // Titles containing both "todo" and "1": Todo 1, 10-19 and 21
+        String cursor = mockMvc.perform(
+                        get("/api/todos/search").param("q", "todo 1").param("limit", "8"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(8))
+                .andExpect(jsonPath("$.nextCursor").isNotEmpty())
+                .andExpect(sqlStatements().count(2))
+                .andReturn()
+                .getResponse()
+                .getContentAsString()
+                .replaceAll(".*\"nextCursor\":\"([^\"]+)\".*", "$1");
+
+        mockMvc.perform(get("/api/todos/search")
+                        .param("q", "todo 1")
+                        .param("limit", "8")
+                        .param("cursor", cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(4))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    void streamEvents_pushesCommittedChangesAndReplaysFromLastEventId() throws Exception {
+        MvcResult stream = mockMvc.perform(get("/api/todos/events"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(patch("/api/todos/{id}/toggle", 7)).andExpect(status().isOk());
+        mockMvc.perform(delete("/api/todos/{id}", 8)).andExpect(status().isNoContent());
+
+        await().atMost(Duration.ofSeconds(5))
+                .until(() -> stream.getResponse().getContentAsString().contains("\"type\":\"DELETED\""));
+        String events = stream.getResponse().getContentAsString();
+        assertThat(events).contains("\"type\":\"UPDATED\",\"entityId\":7");
+        String firstEventId = events.replaceAll("(?s)^.*?id:([^\n]+)\n.*$", "$1");
+
+        MvcResult resumed = mockMvc.perform(get("/api/todos/events").header("Last-Event-ID", firstEventId))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        await().atMost(Duration.ofSeconds(5))
+                .until(() -> resumed.getResponse().getContentAsString().contains("\"entityId\":8"));
+        assertThat(resumed.getResponse().getContentAsString()).doesNotContain("\"UPDATED\"");
+    }
+
+    @Test
+    void getAllTodos_answersUnchangedPageWith304UntilATodoChanges() throws Exception {
+        String eTag = mockMvc.perform(get("/api/todos").param("limit", "10"))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/todos").param("limit", "10").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(sqlStatements().count(1));
+
+        mockMvc.perform(patch("/api/todos/{id}/toggle", 30)).andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/todos").param("limit", "10").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not(eTag)));
+    }
+
+    @Test
+    void getTodoById_answersMatchingETagWith304() throws Exception {
+        String eTag = mockMvc.perform(get("/api/todos/{id}", 7))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/todos/{id}", 7).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void patchTodo_rejectsStaleIfMatch() throws Exception {
+        String eTag = mockMvc.perform(get("/api/todos/{id}", 7))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+        mockMvc.perform(patch("/api/todos/{id}", 7)
+                        .header(HttpHeaders.IF_MATCH, eTag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"priority\":\"high\"}"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(put("/api/todos/{id}", 7)
+                        .header(HttpHeaders.IF_MATCH, eTag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"entityId\":7,\"title\":\"Stale\"}"))
+                .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(patch("/api/todos/{id}", 7)
+                        .header(HttpHeaders.IF_MATCH, eTag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"priority\":\"low\"}"))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    void patchTodo_rejectsABlankTitle() throws Exception {
+        mockMvc.perform(patch("/api/todos/{id}", 7)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"   \"}"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/api/todos/{id}", 7))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value(not("   ")));
+    }
+
+    @Test
+    void updateTodo_returnsTheETagOfTheVersionItWrote() throws Exception {
+        String eTag = mockMvc.perform(get("/api/todos/{id}", 7))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+        String updatedETag = mockMvc.perform(put("/api/todos/{id}", 7)
+                        .header(HttpHeaders.IF_MATCH, eTag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"entityId\":7,\"title\":\"First\"}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not(eTag)))
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(put("/api/todos/{id}", 7)
+                        .header(HttpHeaders.IF_MATCH, updatedETag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"entityId\":7,\"title\":\"Second\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("Second"));
+        mockMvc.perform(get("/api/todos/{id}", 7).header(HttpHeaders.IF_NONE_MATCH, updatedETag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void getTodoById_sendsTheSameWeakETagForEveryFormat() throws Exception {
+        String json = mockMvc.perform(get("/api/todos/{id}", 7))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+        String cbor = mockMvc.perform(get("/api/todos/{id}", 7).accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+
+        assertThat(json).startsWith("W/\"").isEqualTo(cbor);
+        mockMvc.perform(patch("/api/todos/{id}", 7)
+                        .header(HttpHeaders.IF_MATCH, json)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"priority\":\"high\"}"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void getAllTodos_negotiatesCborAndStaysJsonByDefault() throws Exception {
+        byte[] cbor = mockMvc.perform(get("/api/todos").param("limit", "5").accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_CBOR_VALUE))
+                .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT)))
+                .andReturn()
+                .getResponse()
+                .getContentAsByteArray();
+
+        JsonNode page = CBORMapper.builder().build().readTree(cbor);
+        assertThat(page.get("items")).hasSize(5);
+        assertThat(page.get("items").get(0).get("updatedAt").isNumber()).isTrue();
+
+        mockMvc.perform(get("/api/todos").param("limit", "5").accept(MediaType.ALL))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE))
+                .andExpect(jsonPath("$.items.length()").value(5));
+    }
+}
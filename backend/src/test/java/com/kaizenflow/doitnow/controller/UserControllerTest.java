@@ -0,0 +1,139 @@
+package com.kaizenflow.doitnow.controller;
+
+import static com.kaizenflow.doitnow.support.SqlStatementResultMatchers.CHANGE_STAMPING_STATEMENTS;
+import static com.kaizenflow.doitnow.support.SqlStatementResultMatchers.sqlStatements;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.kaizenflow.doitnow.todo.dto.TodoRequest;
+import com.kaizenflow.doitnow.todo.entity.Todo;
+import com.kaizenflow.doitnow.todo.repository.TodoRepository;
+import com.kaizenflow.doitnow.todo.repository.TodoTombstoneRepository;
+import com.kaizenflow.doitnow.todo.service.TodoService;
+import com.kaizenflow.doitnow.user.dto.UserRequest;
+import com.kaizenflow.doitnow.user.entity.User;
+import com.kaizenflow.doitnow.user.repository.UserRepository;
+import com.kaizenflow.doitnow.user.service.UserService;
+import java.time.OffsetDateTime;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.test.web.servlet.MockMvc;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class UserControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TodoRepository todoRepository;
+
+    @Autowired
+    private TodoService todoService;
+
+    @Autowired
+    private TodoTombstoneRepository todoTombstoneRepository;
+
+    @BeforeEach
+    void setUp() {
+        todoRepository.deleteAll();
+        todoTombstoneRepository.deleteAll();
+        userRepository.deleteAll();
+        for (int i = 1; i <= 10; i++) {
+            UserRequest request = new UserRequest();
+            request.setUsername("user" + i);
+            request.setEmail("user" + i + "@example.com");
+            userService.createUser(request);
+        }
+    }
+
+    @Test
+    void getAllUsers_doesNotLoadTodosPerUser() throws Exception {
+        mockMvc.perform(get("/api/users"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(10))
+                .andExpect(sqlStatements().count(1));
+    }
+
+    @Test
+    void getUserByUsername_issuesAtMostTwoQueries() throws Exception {
+        mockMvc.perform(get("/api/users/username/{username}", "user3"))
+                .andExpect(status().isOk())
+                .andExpect(sqlStatements().atMost(2))
+                .andExpect(sqlStatements().noRepeats());
+    }
+
+    @Test
+    void getUserTodos_pagesWithOneQueryAndCountsInAnother() throws Exception {
+        User owner = seedOwnedTodos();
+
+        mockMvc.perform(get("/api/users/{id}/todos", owner.getId()).param("limit", "6"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(6))
+                .andExpect(jsonPath("$.nextCursor").isNotEmpty())
+                .andExpect(sqlStatements().count(1));
+        mockMvc.perform(get("/api/users/{id}/todos", owner.getId()).param("completed", "true"))
+                .andExpect(jsonPath("$.items.length()").value(4));
+
+        mockMvc.perform(get("/api/users/{id}/todos/counts", owner.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(10))
+                .andExpect(jsonPath("$.completed").value(4))
+                .andExpect(jsonPath("$.open").value(6))
+                .andExpect(jsonPath("$.overdue").value(6))
+                .andExpect(sqlStatements().count(1));
+    }
+
+    @Test
+    void getUserTodos_rejectsUnknownUser() throws Exception {
+        mockMvc.perform(get("/api/users/{id}/todos", -1)).andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/users/{id}/todos/counts", -1)).andExpect(status().isNotFound());
+    }
+
+    @Test
+    void deleteUser_deletesTodosThroughDatabaseCascade() throws Exception {
+        User owner = seedOwnedTodos();
+
+        // row lock, tombstone INSERT ... SELECT, user DELETE; the todos are never loaded
+        mockMvc.perform(delete("/api/users/{id}", owner.getId()))
+                .andExpect(status().isNoContent())
+                .andExpect(sqlStatements().count(3 + CHANGE_STAMPING_STATEMENTS));
+
+        assertThat(todoRepository.findAll()).extracting(Todo::getEntityId).containsExactlyInAnyOrder(11L, 12L);
+        assertThat(todoTombstoneRepository.count()).isEqualTo(10);
+        mockMvc.perform(delete("/api/users/{id}", owner.getId())).andExpect(status().isNotFound());
+    }
+
+    /** Creates todos 1-12 and gives 1-10 to user1; 1-4 are completed and all are past due. */
+    private User seedOwnedTodos() {
+        User owner = userRepository.findByUsername("user1").orElseThrow();
+        for (long i = 1; i <= 12; i++) {
+            TodoRequest request = new TodoRequest();
+            request.setEntityId(i);
+            request.setTitle("Todo " + i);
+            request.setCompleted(i <= 4);
+            request.setDueDate(OffsetDateTime.now().minusDays(1));
+            todoService.createTodo(request);
+        }
+        List<Todo> owned = todoRepository.findAll().stream()
+                .filter(todo -> todo.getEntityId() <= 10)
+                .toList();
+        owned.forEach(todo -> todo.setUser(owner));
+        todoRepository.saveAll(owned);
+        return owner;
+    }
+}
@@ -34,6 +34,7 @@ class TodoMapperTest {
 
         assertThat(response).isNotNull();
         assertThat(response.getId()).isEqualTo(todo.getId());
+        assertThat(response.getEntityId()).isEqualTo(todo.getEntityId());
         assertThat(response.getTitle()).isEqualTo(todo.getTitle());
         assertThat(response.getDescription()).isEqualTo(todo.getDescription());
         assertThat(response.getCompleted()).isEqualTo(todo.getCompleted());
@@ -0,0 +1,41 @@
+package com.kaizenflow.doitnow.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.kaizenflow.doitnow.todo.dto.TodoFilter;
+import com.kaizenflow.doitnow.todo.service.TodoService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest
+class ServiceMetricsTest {
+
+    @Autowired
+    private TodoService todoService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void serviceCall_recordsServiceRepositoryAndHibernateMeters() {
+        todoService.getTodos(new TodoFilter(), null, 10);
+
+        assertThat(meterRegistry
+                        .get("doitnow.service")
+                        .tags("class", TodoService.class.getName(), "method", "getTodos")
+                        .timer()
+                        .count())
+                .isPositive();
+        assertThat(meterRegistry
+                        .get("spring.data.repository.invocations")
+                        .tags("repository", "TodoRepository", "method", "findResponses")
+                        .timer()
+                        .count())
+                .isPositive();
+        assertThat(meterRegistry.get("hibernate.statements").functionCounter().count())
+                .isPositive();
+        assertThat(meterRegistry.find("hikaricp.connections.active").gauge()).isNotNull();
+    }
+}
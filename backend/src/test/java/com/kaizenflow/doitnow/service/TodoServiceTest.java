@@ -0,0 +1,282 @@
+package com.kaizenflow.doitnow.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.kaizenflow.doitnow.common.dto.CursorPage;
+import com.kaizenflow.doitnow.common.exception.InvalidRequestException;
+import com.kaizenflow.doitnow.todo.dto.TodoChangesResponse;
+import com.kaizenflow.doitnow.todo.dto.TodoCursor;
+import com.kaizenflow.doitnow.todo.dto.TodoFilter;
+import com.kaizenflow.doitnow.todo.dto.TodoPatchRequest;
+import com.kaizenflow.doitnow.todo.dto.TodoRequest;
+import com.kaizenflow.doitnow.todo.dto.TodoResponse;
+import com.kaizenflow.doitnow.todo.dto.TodoTombstoneResponse;
+import com.kaizenflow.doitnow.todo.entity.Todo;
+import com.kaizenflow.doitnow.todo.exception.TodoNotFoundException;
+import com.kaizenflow.doitnow.todo.repository.TodoRepository;
+import com.kaizenflow.doitnow.todo.repository.TodoTombstoneRepository;
+import com.kaizenflow.doitnow.todo.service.TodoService;
+import jakarta.persistence.EntityManagerFactory;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.hibernate.Cache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest
+class TodoServiceTest {
+
+    @Autowired
+    private TodoService todoService;
+
+    @Autowired
+    private TodoRepository todoRepository;
+
+    @Autowired
+    private TodoTombstoneRepository todoTombstoneRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    void setUp() {
+        todoRepository.deleteAll();
+        todoTombstoneRepository.deleteAll();
+    }
+
+    @Test
+    void getAllTodos_walksEveryPageExactlyOnce() {
+        for (long i = 1; i <= 7; i++) {
+            todoService.createTodo(request(i, i % 2 == 0));
+        }
+
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            CursorPage<TodoResponse> page = todoService.getTodos(new TodoFilter(), cursor, 3);
+            page.getItems().forEach(todo -> seen.add(todo.getId()));
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertThat(pages).isEqualTo(3);
+        assertThat(seen).hasSize(7).doesNotHaveDuplicates();
+    }
+
+    @Test
+    void getTodos_pagesOnlyMatchingTodos() {
+        for (long i = 1; i <= 5; i++) {
+            todoService.createTodo(request(i, i <= 3));
+        }
+        TodoFilter filter = new TodoFilter();
+        filter.setCompleted(true);
+
+        CursorPage<TodoResponse> first = todoService.getTodos(filter, null, 2);
+        CursorPage<TodoResponse> second = todoService.getTodos(filter, first.getNextCursor(), 2);
+
+        assertThat(first.getItems()).hasSize(2).allMatch(TodoResponse::getCompleted);
+        assertThat(second.getItems()).hasSize(1).allMatch(TodoResponse::getCompleted);
+        assertThat(second.getNextCursor()).isNull();
+    }
+
+    @Test
+    void getTodos_combinesFilters() {
+        for (long i = 1; i <= 6; i++) {
+            TodoRequest request = request(i, i % 2 == 0);
+            request.setPriority(i <= 3 ? "high" : "low");
+            request.setAssignedTo(i == 2 || i == 5 ? "sam" : null);
+            todoService.createTodo(request);
+        }
+        TodoFilter filter = new TodoFilter();
+        filter.setCompleted(true);
+        filter.setPriority("high");
+        filter.setAssignedTo("sam");
+
+        CursorPage<TodoResponse> page = todoService.getTodos(filter, null, 10);
+
+        assertThat(page.getItems()).extracting(TodoResponse::getEntityId).containsExactly(2L);
+    }
+
+    @Test
+    void getTodos_rejectsMalformedCursor() {
+        assertThatThrownBy(() -> todoService.getTodos(new TodoFilter(), "not-a-cursor", 10))
+                .isInstanceOf(InvalidRequestException.class);
+    }
+
+    @Test
+    void getChangesSince_returnsOnlyChangesAfterWatermark() {
+        todoService.createTodo(request(1L, false));
+        todoService.createTodo(request(2L, false));
+
+        TodoChangesResponse initial = todoService.getChangesSince(null, 100);
+        assertThat(initial.getChanged()).extracting(TodoResponse::getEntityId).containsExactly(1L, 2L);
+        assertThat(initial.isHasMore()).isFalse();
+
+        todoService.toggleTodoCompleted(2L);
+        todoService.deleteTodo(1L);
+
+        TodoChangesResponse delta = todoService.getChangesSince(initial.getWatermark(), 100);
+        assertThat(delta.getChanged()).extracting(TodoResponse::getEntityId).containsExactly(2L);
+        assertThat(delta.getDeleted()).extracting(TodoTombstoneResponse::getEntityId).containsExactly(1L);
+
+        TodoChangesResponse empty = todoService.getChangesSince(delta.getWatermark(), 100);
+        assertThat(empty.getChanged()).isEmpty();
+        assertThat(empty.getDeleted()).isEmpty();
+    }
+
+    @Test
+    void getChangesSince_restartsFromTheBeginningForLegacyWatermarks() {
+        todoService.createTodo(request(1L, false));
+        String legacy = new TodoCursor(OffsetDateTime.now(ZoneOffset.UTC), 1L).encode() + "."
+                + new TodoCursor(OffsetDateTime.now(ZoneOffset.UTC), 1L).encode();
+
+        TodoChangesResponse changes = todoService.getChangesSince(legacy, 100);
+
+        assertThat(changes.getChanged()).extracting(TodoResponse::getEntityId).containsExactly(1L);
+        assertThatThrownBy(() -> todoService.getChangesSince("not-a-watermark", 100))
+                .isInstanceOf(InvalidRequestException.class);
+    }
+
+    @Test
+    void getChangesSince_pagesAReusedEntityIdInCommitOrder() {
+        for (long i = 1; i <= 6; i++) {
+            todoService.createTodo(request(i, false));
+        }
+        Map<Long, TodoResponse> client = new HashMap<>();
+        String watermark = applyAllChanges(client, null, 100);
+
+        for (long i = 2; i <= 6; i++) {
+            todoService.deleteTodo(i);
+        }
+        todoService.deleteTodo(1L);
+        todoService.createTodo(request(1L, true));
+        applyAllChanges(client, watermark, 2);
+
+        assertThat(client).containsOnlyKeys(1L);
+        assertThat(client.get(1L).getCompleted()).isTrue();
+    }
+
+    @Test
+    void getChangesSince_leavesTheSecondLevelCacheAlone() {
+        TodoResponse created = todoService.createTodo(request(1L, false));
+        Cache cache = entityManagerFactory.getCache().unwrap(Cache.class);
+        cache.evictAllRegions();
+
+        assertThat(todoService.getChangesSince(null, 100).getChanged()).hasSize(1);
+
+        assertThat(cache.containsEntity(Todo.class, created.getId())).isFalse();
+    }
+
+    @Test
+    void toggleTodoCompleted_losesNoUpdatesUnderConcurrentToggles() throws Exception {
+        todoService.createTodo(request(1L, false));
+        int threads = 8;
+        int togglesPerThread = 25;
+
+        List<Future<Integer>> completedResults = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+            for (int i = 0; i < threads; i++) {
+                completedResults.add(executor.submit(() -> {
+                    int completed = 0;
+                    for (int j = 0; j < togglesPerThread; j++) {
+                        if (todoService.toggleTodoCompleted(1L).getCompleted()) {
+                            completed++;
+                        }
+                    }
+                    return completed;
+                }));
+            }
+        }
+
+        // Serialized toggles from false alternate true/false, so exactly half of them report completed = true
+        int completed = 0;
+        for (Future<Integer> result : completedResults) {
+            completed += result.get();
+        }
+        assertThat(completed).isEqualTo(threads * togglesPerThread / 2);
+        assertThat(todoService.getTodoById(1L).getCompleted()).isFalse();
+    }
+
+    @Test
+    void patchTodo_writesOnlyPresentFields() {
+        TodoRequest original = request(1L, false);
+        original.setDescription("keep me");
+        original.setAssignedTo("sam");
+        todoService.createTodo(original);
+
+        TodoPatchRequest patch = new TodoPatchRequest();
+        patch.setTitle("Renamed");
+        patch.setPriority("high");
+        TodoResponse patched = todoService.patchTodo(1L, patch, null);
+
+        assertThat(patched.getTitle()).isEqualTo("Renamed");
+        assertThat(patched.getPriority()).isEqualTo("high");
+        assertThat(patched.getDescription()).isEqualTo("keep me");
+        assertThat(patched.getAssignedTo()).isEqualTo("sam");
+        assertThat(patched.getCompleted()).isFalse();
+        assertThat(todoService.getTodoById(1L).getTitle()).isEqualTo("Renamed");
+    }
+
+    @Test
+    void toggleTodoCompleted_evictsOnlyTheToggledTodoFromTheCache() {
+        TodoResponse toggled = todoService.createTodo(request(1L, false));
+        TodoResponse untouched = todoService.createTodo(request(2L, false));
+        todoService.getTodoById(1L);
+        todoService.getTodoById(2L);
+        Cache cache = entityManagerFactory.getCache().unwrap(Cache.class);
+
+        todoService.toggleTodoCompleted(1L);
+
+        assertThat(cache.containsEntity(Todo.class, toggled.getId())).isFalse();
+        assertThat(cache.containsEntity(Todo.class, untouched.getId())).isTrue();
+        assertThat(todoService.getTodoById(1L).getCompleted()).isTrue();
+    }
+
+    @Test
+    void deleteTodo_letsARecreatedTodoBeFoundByItsEntityId() {
+        todoService.createTodo(request(1L, false));
+        todoService.getTodoById(1L);
+
+        todoService.deleteTodo(1L);
+        TodoResponse recreated = todoService.createTodo(request(1L, true));
+
+        assertThat(todoService.getTodoById(1L).getId()).isEqualTo(recreated.getId());
+    }
+
+    @Test
+    void deleteTodo_rejectsUnknownTodoWithoutTombstone() {
+        assertThatThrownBy(() -> todoService.deleteTodo(42L)).isInstanceOf(TodoNotFoundException.class);
+        assertThat(todoService.getChangesSince(null, 100).getDeleted()).isEmpty();
+    }
+
+    // Pages through the feed the way clients do, applying each page's deletions before its changes
+    private String applyAllChanges(Map<Long, TodoResponse> client, String watermark, int limit) {
+        TodoChangesResponse page;
+        do {
+            page = todoService.getChangesSince(watermark, limit);
+            page.getDeleted().forEach(tombstone -> client.remove(tombstone.getEntityId()));
+            page.getChanged().forEach(todo -> client.put(todo.getEntityId(), todo));
+            watermark = page.getWatermark();
+        } while (page.isHasMore());
+        return watermark;
+    }
+
+    private static TodoRequest request(Long entityId, boolean completed) {
+        TodoRequest request = new TodoRequest();
+        request.setEntityId(entityId);
+        request.setTitle("Todo " + entityId);
+        request.setCompleted(completed);
+        return request;
+    }
+}
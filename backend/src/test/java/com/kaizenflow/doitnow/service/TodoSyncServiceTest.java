@@ -0,0 +1,100 @@
+package com.kaizenflow.doitnow.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.kaizenflow.doitnow.todo.dto.TodoRequest;
+import com.kaizenflow.doitnow.todo.dto.TodoSyncOperation;
+import com.kaizenflow.doitnow.todo.dto.TodoSyncOperationType;
+import com.kaizenflow.doitnow.todo.dto.TodoSyncRequest;
+import com.kaizenflow.doitnow.todo.dto.TodoSyncResponse;
+import com.kaizenflow.doitnow.todo.dto.TodoSyncResult;
+import com.kaizenflow.doitnow.todo.dto.TodoSyncStatus;
+import com.kaizenflow.doitnow.todo.repository.TodoRepository;
+import com.kaizenflow.doitnow.todo.service.TodoService;
+import com.kaizenflow.doitnow.todo.service.TodoSyncService;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest
+class TodoSyncServiceTest {
+
+    @Autowired
+    private TodoSyncService todoSyncService;
+
+    @Autowired
+    private TodoService todoService;
+
+    @Autowired
+    private TodoRepository todoRepository;
+
+    @BeforeEach
+    void setUp() {
+        todoRepository.deleteAll();
+    }
+
+    @Test
+    void applyBatch_appliesOperationsInOrder() {
+        TodoSyncResponse response = todoSyncService.applyBatch(batch(
+                operation(TodoSyncOperationType.CREATE, 1L, payload("First")),
+                operation(TodoSyncOperationType.CREATE, 2L, payload("Second")),
+                operation(TodoSyncOperationType.UPDATE, 1L, payload("First, renamed")),
+                operation(TodoSyncOperationType.TOGGLE, 1L, null),
+                operation(TodoSyncOperationType.DELETE, 2L, null)));
+
+        assertThat(response.getApplied()).isEqualTo(5);
+        assertThat(response.getRejected()).isZero();
+        assertThat(todoRepository.count()).isEqualTo(1);
+        assertThat(todoService.getTodoById(1L).getTitle()).isEqualTo("First, renamed");
+        assertThat(todoService.getTodoById(1L).getCompleted()).isTrue();
+    }
+
+    @Test
+    void applyBatch_reportsFailuresPerOperation() {
+        TodoSyncResponse response = todoSyncService.applyBatch(batch(
+                operation(TodoSyncOperationType.UPDATE, 404L, payload("Missing")),
+                operation(TodoSyncOperationType.CREATE, 3L, payload(" ")),
+                operation(TodoSyncOperationType.CREATE, 4L, payload("Valid"))));
+
+        assertThat(response.getResults())
+                .extracting(TodoSyncResult::getStatus)
+                .containsExactly(TodoSyncStatus.NOT_FOUND, TodoSyncStatus.INVALID, TodoSyncStatus.APPLIED);
+        assertThat(response.getResults().get(2).getTodo().getId()).isNotNull();
+        assertThat(todoRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void applyBatch_recreatesATodoDeletedEarlierInTheBatch() {
+        todoSyncService.applyBatch(batch(operation(TodoSyncOperationType.CREATE, 5L, payload("Original"))));
+
+        TodoSyncResponse response = todoSyncService.applyBatch(batch(
+                operation(TodoSyncOperationType.DELETE, 5L, null),
+                operation(TodoSyncOperationType.CREATE, 5L, payload("Recreated"))));
+
+        assertThat(response.getApplied()).isEqualTo(2);
+        assertThat(todoRepository.count()).isEqualTo(1);
+        assertThat(todoService.getTodoById(5L).getTitle()).isEqualTo("Recreated");
+    }
+
+    private static TodoSyncRequest batch(TodoSyncOperation... operations) {
+        TodoSyncRequest request = new TodoSyncRequest();
+        request.setOperations(List.of(operations));
+        return request;
+    }
+
+    private static TodoSyncOperation operation(TodoSyncOperationType type, Long entityId, TodoRequest payload) {
+        TodoSyncOperation operation = new TodoSyncOperation();
+        operation.setType(type);
+        operation.setEntityId(entityId);
+        operation.setPayload(payload);
+        return operation;
+    }
+
+    private static TodoRequest payload(String title) {
+        TodoRequest request = new TodoRequest();
+        request.setTitle(title);
+        return request;
+    }
+}
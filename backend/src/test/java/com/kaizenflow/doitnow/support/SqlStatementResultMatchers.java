@@ -0,0 +1,55 @@
+package com.kaizenflow.doitnow.support;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.kaizenflow.doitnow.common.datasource.StatementCountingFilter;
+import com.kaizenflow.doitnow.common.datasource.StatementTally;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+/**
+ * MockMvc assertions on the JDBC statements a request executed, as counted by {@link StatementCountingFilter}:
+ *
+ * <pre>{@code
+ * mockMvc.perform(get("/api/todos")).andExpect(sqlStatements().count(1));
+ * }</pre>
+ */
+public final class SqlStatementResultMatchers {
+
+    /**
+     * Statements every transaction that writes todos or tombstones runs just before it commits: take the next change
+     * number from the counter row, read it back, and stamp it on the unstamped todos and tombstones.
+     */
+    public static final int CHANGE_STAMPING_STATEMENTS = 4;
+
+    private SqlStatementResultMatchers() {}
+
+    public static SqlStatementResultMatchers sqlStatements() {
+        return new SqlStatementResultMatchers();
+    }
+
+    public ResultMatcher count(int expected) {
+        return result -> assertThat(tally(result).getCount())
+                .as("SQL statements executed: %s", tally(result).getStatements())
+                .isEqualTo(expected);
+    }
+
+    public ResultMatcher atMost(int max) {
+        return result -> assertThat(tally(result).getCount())
+                .as("SQL statements executed: %s", tally(result).getStatements())
+                .isLessThanOrEqualTo(max);
+    }
+
+    /** No statement ran more than once, i.e. no N+1 pattern. */
+    public ResultMatcher noRepeats() {
+        return result -> assertThat(tally(result).getMaxRepetitions())
+                .as("SQL statements executed: %s", tally(result).getStatements())
+                .isLessThanOrEqualTo(1);
+    }
+
+    private static StatementTally tally(MvcResult result) {
+        Object tally = result.getRequest().getAttribute(StatementCountingFilter.TALLY_ATTRIBUTE);
+        assertThat(tally).as("statement tally; is statement counting enabled?").isInstanceOf(StatementTally.class);
+        return (StatementTally) tally;
+    }
+}
@@ -2,7 +2,12 @@ import type { Database } from 'better-sqlite3'
 import { SyncQueueDatabaseService } from './syncQueueDatabaseService.js'
 import { todoApi, TodoApiService } from './todoApiService.js'
 import type { SyncQueueRow } from '@electron/types/syncQueue.types.js'
-import type { Todo, TodoRequest } from '@/shared/index.js'
+import type {
+  Todo,
+  TodoRequest,
+  TodoSyncOperation,
+  TodoSyncResponse,
+} from '@/shared/index.js'
 import type { ApiError } from '@electron/types/apiError.js'
 import { getDatabase } from '@electron/database.js'
 import { parseISO, formatISO, format, isValid } from 'date-fns'
@@ -134,23 +139,125 @@ class SyncService {
 
   /**
    * Process a batch of sync queue items
+   * The whole batch is sent to the API in a single request
    */
   private async processBatch(
     items: SyncQueueRow[],
     result: SyncResult,
   ): Promise<void> {
+    const queued: SyncQueueRow[] = []
+    const operations: TodoSyncOperation[] = []
+
     for (const item of items) {
       try {
-        await this.processSyncItem(item)
-        result.success++
+        const operation = this.toSyncOperation(item)
+        this.syncQueueService.markAsProcessing(item.id)
+        operations.push(operation)
+        queued.push(item)
       } catch (error) {
-        result.failed++
-        result.errors.push({
-          id: item.id,
-          error: this.getErrorMessage(error),
-        })
+        await this.recordFailure(item, error, result)
       }
     }
+
+    if (operations.length === 0) {
+      return
+    }
+
+    let response: TodoSyncResponse
+    try {
+      response = await this.todoApiService.syncTodos(operations)
+    } catch (error) {
+      for (const item of queued) {
+        await this.recordFailure(item, error, result)
+      }
+      return
+    }
+
+    for (const outcome of response.results) {
+      const item = queued[outcome.index]
+      // Deleting something the server no longer has is already in sync. An archived todo stays unchanged until it
+      // is restored, so retrying cannot help; the changes feed removes the local copy
+      const synced =
+        outcome.status === 'APPLIED' ||
+        outcome.status === 'ARCHIVED' ||
+        (outcome.status === 'NOT_FOUND' && outcome.type === 'DELETE')
+
+      if (synced) {
+        if (outcome.status === 'ARCHIVED') {
+          logInfo('[Sync] Dropped queued change of archived todo', {
+            type: outcome.type,
+            entityId: outcome.entityId,
+          })
+        }
+        this.syncQueueService.deleteById(item.id)
+        result.success++
+      } else {
+        await this.recordFailure(
+          item,
+          outcome.message ?? outcome.status,
+          result,
+        )
+      }
+    }
+  }
+
+  /**
+   * Convert a sync queue row into an operation for the batch sync endpoint
+   */
+  private toSyncOperation(item: SyncQueueRow): TodoSyncOperation {
+    const entityId = parseInt(item.entity_id, 10)
+
+    if (isNaN(entityId)) {
+      throw new Error(`Invalid entity ID: ${item.entity_id}`)
+    }
+
+    if (item.action_type === 'DELETE') {
+      return { type: 'DELETE', entityId }
+    }
+
+    if (item.action_type !== 'CREATE' && item.action_type !== 'UPDATE') {
+      throw new Error(`Unknown action type: ${item.action_type}`)
+    }
+
+    return {
+      type: item.action_type,
+      entityId,
+      payload: this.toTodoRequest(item),
+    }
+  }
+
+  /**
+   * Record a failed item, scheduling a retry when allowed
+   */
+  private async recordFailure(
+    item: SyncQueueRow,
+    error: unknown,
+    result: SyncResult,
+  ): Promise<void> {
+    await this.handleSyncError(item, error)
+    result.failed++
+    result.errors.push({
+      id: item.id,
+      error: this.getErrorMessage(error),
+    })
+  }
+
+  /**
+   * Build the API request body from a sync queue payload
+   */
+  private toTodoRequest(item: SyncQueueRow): TodoRequest {
+    const parsePayload = JSON.parse(item.payload) as Todo
+    return {
+      entityId: parsePayload.id,
+      title: parsePayload.title,
+      description: parsePayload.description,
+      completed: parsePayload.completed === 1,
+      priority: parsePayload.priority,
+      dueDate: parsePayload.due_date
+        ? formatISO(parseISO(parsePayload.due_date))
+        : undefined,
+      createdAt: formatISO(new Date(item.created_at)),
+    } as TodoRequest
   }
 
   /**
@@ -161,19 +268,7 @@ class SyncService {
     this.syncQueueService.markAsProcessing(item.id)
 
     try {
-      // Parse payload
-      const parsePayload = JSON.parse(item.payload) as Todo
-      const payload = {
-        entityId: parsePayload.id,
-        title: parsePayload.title,
-        description: parsePayload.description,
-        completed: parsePayload.completed === 1,
-        priority: parsePayload.priority,
-        dueDate: parsePayload.due_date
-          ? formatISO(parseISO(parsePayload.due_date))
-          : undefined,
-        createdAt: formatISO(new Date(item.created_at)),
-      } as TodoRequest
+      const payload = this.toTodoRequest(item)
 
       // Call appropriate API endpoint based on action type
       switch (item.action_type) {
@@ -347,7 +442,7 @@ export function getSyncService(): SyncService {
   if (!_syncService) {
     _syncService = new SyncService(getDatabase(), todoApi, {
       maxRetries: 3,
-      batchSize: 50,
+      batchSize: 500,
     })
   }
   return _syncService
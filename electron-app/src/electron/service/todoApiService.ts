@@ -1,10 +1,29 @@
-import type { TodoRequest, TodoResponse } from '@/shared/index.js'
+import type {
+  TodoBulkFilter,
+  TodoBulkResponse,
+  TodoBulkUpdateRequest,
+  TodoChangesResponse,
+  TodoCounts,
+  TodoEvent,
+  TodoPage,
+  TodoPatchRequest,
+  TodoRequest,
+  TodoResponse,
+  TodoSyncOperation,
+  TodoSyncResponse,
+} from '@/shared/index.js'
+import { randomUUID } from 'crypto'
 import { ApiError } from '@electron/types/apiError.js'
 import { config } from '../config.js'
 
 class TodoApiService {
   private baseUrl: string
   private timeout: number
+  // Last ETag and body per GET url, replayed when the server answers 304 Not Modified
+  private etagCache = new Map<string, { etag: string; body: unknown }>()
+  private static readonly ETAG_CACHE_SIZE = 200
+  // Identifies this app instance to the server's per-client rate limits
+  private clientId = randomUUID()
 
   constructor(
     baseUrl?: string,
@@ -23,6 +42,8 @@ class TodoApiService {
   ): Promise<T> {
     const controller = new AbortController()
     const timeoutId = setTimeout(() => controller.abort(), this.timeout)
+    const isGet = (options.method ?? 'GET') === 'GET'
+    const cached = isGet ? this.etagCache.get(url) : undefined
 
     try {
       const response = await fetch(url, {
@@ -30,12 +51,19 @@ class TodoApiService {
         signal: controller.signal,
         headers: {
           'Content-Type': 'application/json',
+          'X-Client-Id': this.clientId,
+          ...(cached ? { 'If-None-Match': cached.etag } : {}),
           ...options.headers,
         },
       })
 
       clearTimeout(timeoutId)
 
+      // Unchanged since the cached copy; the server skipped building the body
+      if (response.status === 304 && cached) {
+        return cached.body as T
+      }
+
       // Handle non-2xx responses
       if (!response.ok) {
         const errorBody = await response.text()
@@ -52,6 +80,12 @@ class TodoApiService {
             errorData.message || errorData.error || `HTTP ${response.status}`,
           status: response.status,
           code: errorData.code,
+          ...(response.status === 429
+            ? {
+                code: 'RATE_LIMITED',
+                retryAfterSeconds: Number(response.headers.get('Retry-After')) || undefined,
+              }
+            : {}),
         }
 
         throw error
@@ -62,7 +96,12 @@ class TodoApiService {
         return null as T
       }
 
-      return await response.json()
+      const body = await response.json()
+      const etag = response.headers.get('ETag')
+      if (isGet && etag) {
+        this.rememberETag(url, etag, body)
+      }
+      return body
     } catch (error: any) {
       clearTimeout(timeoutId)
 
@@ -89,14 +128,32 @@ class TodoApiService {
     }
   }
 
+  private rememberETag(url: string, etag: string, body: unknown): void {
+    this.etagCache.delete(url)
+    if (this.etagCache.size >= TodoApiService.ETAG_CACHE_SIZE) {
+      const oldest = this.etagCache.keys().next().value
+      if (oldest !== undefined) {
+        this.etagCache.delete(oldest)
+      }
+    }
+    this.etagCache.set(url, { etag, body })
+  }
+
   /**
    * GET /api/todos
-   * Get all todos with optional filters
+   * Get one page of todos, optionally narrowed by any combination of filters
+   * Pass the previous page's nextCursor to continue
    */
   async getAllTodos(params?: {
     completed?: boolean
     priority?: string
-  }): Promise<TodoResponse[]> {
+    assignedTo?: string
+    userId?: number
+    dueFrom?: Date
+    dueTo?: Date
+    cursor?: string
+    limit?: number
+  }): Promise<TodoPage> {
     const searchParams = new URLSearchParams()
 
     if (params?.completed !== undefined) {
@@ -105,15 +162,149 @@ class TodoApiService {
     if (params?.priority) {
       searchParams.append('priority', params.priority)
     }
+    if (params?.assignedTo) {
+      searchParams.append('assignedTo', params.assignedTo)
+    }
+    if (params?.userId !== undefined) {
+      searchParams.append('userId', String(params.userId))
+    }
+    if (params?.dueFrom) {
+      searchParams.append('dueFrom', params.dueFrom.toISOString())
+    }
+    if (params?.dueTo) {
+      searchParams.append('dueTo', params.dueTo.toISOString())
+    }
+    if (params?.cursor) {
+      searchParams.append('cursor', params.cursor)
+    }
+    if (params?.limit !== undefined) {
+      searchParams.append('limit', String(params.limit))
+    }
 
     const queryString = searchParams.toString()
     const url = `${this.baseUrl}/api/todos${queryString ? `?${queryString}` : ''}`
 
-    return this.fetchWithTimeout<TodoResponse[]>(url, {
+    return this.fetchWithTimeout<TodoPage>(url, {
       method: 'GET',
     })
   }
 
+  /**
+   * GET /api/todos/changes
+   * Get todos changed or deleted since a watermark
+   * Omit the watermark for a full initial sync
+   */
+  async getChanges(since?: string): Promise<TodoChangesResponse> {
+    const query = since ? `?since=${encodeURIComponent(since)}` : ''
+
+    return this.fetchWithTimeout<TodoChangesResponse>(
+      `${this.baseUrl}/api/todos/changes${query}`,
+      { method: 'GET' },
+    )
+  }
+
+  /**
+   * GET /api/todos/events
+   * Stream committed todo changes as Server-Sent Events instead of polling
+   * Pass the last event id seen to resume after a disconnect; returns a function that closes the stream
+   */
+  subscribeToEvents(
+    onEvent: (event: TodoEvent, id: string) => void,
+    onClose: (error?: unknown) => void,
+    lastEventId?: string,
+  ): () => void {
+    const controller = new AbortController()
+
+    const read = async () => {
+      const response = await fetch(`${this.baseUrl}/api/todos/events`, {
+        signal: controller.signal,
+        headers: {
+          Accept: 'text/event-stream',
+          'X-Client-Id': this.clientId,
+          ...(lastEventId ? { 'Last-Event-ID': lastEventId } : {}),
+        },
+      })
+      if (!response.ok || !response.body) {
+        throw { message: `HTTP ${response.status}`, status: response.status } as ApiError
+      }
+
+      const reader = response.body.pipeThrough(new TextDecoderStream()).getReader()
+      let buffer = ''
+      for (;;) {
+        const { value, done } = await reader.read()
+        if (done) {
+          return
+        }
+        buffer += value
+        let end: number
+        // Events are separated by a blank line; comment lines (heartbeats) carry no data
+        while ((end = buffer.indexOf('\n\n')) >= 0) {
+          const block = buffer.slice(0, end)
+          buffer = buffer.slice(end + 2)
+          let id = ''
+          let data = ''
+          for (const line of block.split('\n')) {
+            if (line.startsWith('id:')) {
+              id = line.slice(3)
+            } else if (line.startsWith('data:')) {
+              data += line.slice(5)
+            }
+          }
+          if (data) {
+            onEvent(JSON.parse(data) as TodoEvent, id)
+          }
+        }
+      }
+    }
+
+    read().then(
+      () => onClose(),
+      (error) => {
+        if (!controller.signal.aborted) {
+          onClose(error)
+        }
+      },
+    )
+    return () => controller.abort()
+  }
+
+  /**
+   * GET /api/users/{userId}/todos
+   * Get one page of a user's todos, most recently updated first
+   */
+  async getUserTodos(
+    userId: number,
+    params?: { completed?: boolean; cursor?: string; limit?: number },
+  ): Promise<TodoPage> {
+    const searchParams = new URLSearchParams()
+    if (params?.completed !== undefined) {
+      searchParams.append('completed', String(params.completed))
+    }
+    if (params?.cursor) {
+      searchParams.append('cursor', params.cursor)
+    }
+    if (params?.limit !== undefined) {
+      searchParams.append('limit', String(params.limit))
+    }
+
+    const queryString = searchParams.toString()
+    return this.fetchWithTimeout<TodoPage>(
+      `${this.baseUrl}/api/users/${userId}/todos${queryString ? `?${queryString}` : ''}`,
+      { method: 'GET' },
+    )
+  }
+
+  /**
+   * GET /api/users/{userId}/todos/counts
+   * Count a user's todos by state
+   */
+  async getUserTodoCounts(userId: number): Promise<TodoCounts> {
+    return this.fetchWithTimeout<TodoCounts>(
+      `${this.baseUrl}/api/users/${userId}/todos/counts`,
+      { method: 'GET' },
+    )
+  }
+
   /**
    * GET /api/todos/{id}
    * Get a single todo by ID
@@ -160,6 +351,20 @@ class TodoApiService {
     })
   }
 
+  /**
+   * PATCH /api/todos/{id}
+   * Update only the given fields of a todo
+   */
+  async patchTodo(id: number, patch: TodoPatchRequest): Promise<TodoResponse> {
+    return this.fetchWithTimeout<TodoResponse>(
+      `${this.baseUrl}/api/todos/${id}`,
+      {
+        method: 'PATCH',
+        body: JSON.stringify(patch),
+      },
+    )
+  }
+
   /**
    * PATCH /api/todos/{id}/toggle
    * Toggle todo completed status
@@ -171,6 +376,48 @@ class TodoApiService {
     )
   }
 
+  /**
+   * POST /api/todos/sync
+   * Apply an ordered batch of queued changes in one request
+   */
+  async syncTodos(operations: TodoSyncOperation[]): Promise<TodoSyncResponse> {
+    return this.fetchWithTimeout<TodoSyncResponse>(
+      `${this.baseUrl}/api/todos/sync`,
+      {
+        method: 'POST',
+        body: JSON.stringify({ operations }),
+      },
+    )
+  }
+
+  /**
+   * POST /api/todos/bulk-update
+   * Apply the same changes to every todo matching the filter
+   */
+  async updateTodos(request: TodoBulkUpdateRequest): Promise<TodoBulkResponse> {
+    return this.fetchWithTimeout<TodoBulkResponse>(
+      `${this.baseUrl}/api/todos/bulk-update`,
+      {
+        method: 'POST',
+        body: JSON.stringify(request),
+      },
+    )
+  }
+
+  /**
+   * POST /api/todos/bulk-delete
+   * Delete every todo matching the filter
+   */
+  async deleteTodos(filter: TodoBulkFilter): Promise<TodoBulkResponse> {
+    return this.fetchWithTimeout<TodoBulkResponse>(
+      `${this.baseUrl}/api/todos/bulk-delete`,
+      {
+        method: 'POST',
+        body: JSON.stringify(filter),
+      },
+    )
+  }
+
   /**
    * GET /api/todos/due-date
    * Get todos by due date range
@@ -195,7 +442,7 @@ class TodoApiService {
    */
   async healthCheck(): Promise<boolean> {
     try {
-      await this.fetchWithTimeout<any>(`${this.baseUrl}/api/todos`, {
+      await this.fetchWithTimeout<any>(`${this.baseUrl}/api/todos?limit=1`, {
         method: 'GET',
       })
       return true
@@ -2,4 +2,6 @@ export interface ApiError {
   message: string
   status: number
   code?: string
+  // Set on 429 responses: how long the server asks the client to wait before retrying
+  retryAfterSeconds?: number
 }
@@ -57,8 +57,49 @@ export interface TodoRequest {
   createdAt?: string
 }
 
+/** Partial update; fields left out are not changed */
+export interface TodoPatchRequest {
+  title?: string
+  description?: string
+  completed?: boolean
+  priority?: 'low' | 'medium' | 'high'
+  dueDate?: string // ISO 8601 format
+  assignedTo?: string
+}
+
+/** Criteria selecting the todos a bulk operation applies to; at least one must be set */
+export interface TodoBulkFilter {
+  entityIds?: number[]
+  completed?: boolean
+  priority?: 'low' | 'medium' | 'high'
+  assignedTo?: string
+  userId?: number
+  dueFrom?: string // ISO 8601 format
+  dueTo?: string // ISO 8601 format
+}
+
+export interface TodoBulkUpdateRequest {
+  filter: TodoBulkFilter
+  completed?: boolean
+  priority?: 'low' | 'medium' | 'high'
+  assignedTo?: string
+}
+
+export interface TodoBulkResponse {
+  affected: number
+}
+
+/** A user's todos by state; overdue todos are open and past their due date */
+export interface TodoCounts {
+  total: number
+  completed: number
+  open: number
+  overdue: number
+}
+
 export interface TodoResponse {
   id: number
+  entityId: number
   title: string
   description?: string
   completed: boolean
@@ -67,4 +108,66 @@ export interface TodoResponse {
   userId?: number
   createdAt: string
   updatedAt: string
+  version: number // also the todo's ETag, sent as W/"<version>"
+}
+
+/**
+ * One page of todos returned by GET /api/todos
+ * nextCursor is null once the last page has been reached
+ */
+export interface TodoPage {
+  items: TodoResponse[]
+  nextCursor: string | null
+  limit: number
+}
+
+/**
+ * Operation kinds accepted by POST /api/todos/sync
+ */
+export type TodoSyncOperationType = 'CREATE' | 'UPDATE' | 'DELETE' | 'TOGGLE'
+
+export interface TodoSyncOperation {
+  type: TodoSyncOperationType
+  entityId: number
+  payload?: TodoRequest
+}
+
+export interface TodoSyncResult {
+  index: number
+  entityId: number
+  type: TodoSyncOperationType
+  status: 'APPLIED' | 'NOT_FOUND' | 'ARCHIVED' | 'INVALID'
+  todo: TodoResponse | null
+  message: string | null
+}
+
+export interface TodoSyncResponse {
+  applied: number
+  rejected: number
+  results: TodoSyncResult[]
+}
+
+export interface TodoTombstoneResponse {
+  id: number
+  entityId: number
+  deletedAt: string
+}
+
+/**
+ * Response of GET /api/todos/changes
+ * Apply deleted before changed, store watermark for the next call,
+ * and call again straight away while hasMore is true
+ */
+export interface TodoChangesResponse {
+  changed: TodoResponse[]
+  deleted: TodoTombstoneResponse[]
+  watermark: string
+  hasMore: boolean
+}
+
+/** A committed change pushed over GET /api/todos/events; RESYNC means catch up through getChanges */
+export interface TodoEvent {
+  type: 'CREATED' | 'UPDATED' | 'DELETED' | 'RESYNC'
+  entityId: number | null
+  todo: TodoResponse | null
 }